@@ -0,0 +1,51 @@
+package com.baboon.benchmark;
+
+import com.baboon.model.StatsWindow;
+import com.baboon.repository.GameRepository;
+import com.baboon.service.AnalyticsStore;
+import com.baboon.service.GameHistory;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-memory counterpart of {@link StatsRepositoryBenchmark}: one scan
+ * answers all three tables, so compare it against the sum of those three.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AnalyticsStoreBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int games;
+
+    @Param({"week", "month", "all"})
+    public String period;
+
+    private AnalyticsStore store;
+    private StatsWindow window;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        try (HikariDataSource dataSource = BenchmarkDatabase.open(games)) {
+            store = new AnalyticsStore(new GameHistory(new GameRepository(dataSource, dataSource)));
+            store.load();
+        }
+        LocalDate today = LocalDate.now();
+        window = switch (period) {
+            case "week" -> StatsWindow.weekly(today);
+            case "month" -> StatsWindow.month(today);
+            default -> StatsWindow.allTime();
+        };
+    }
+
+    @Benchmark
+    public Map<String, List<Map<String, Object>>> stats() {
+        return store.getStats(window);
+    }
+}
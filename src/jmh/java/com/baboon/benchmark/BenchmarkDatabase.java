@@ -0,0 +1,232 @@
+package com.baboon.benchmark;
+
+import com.baboon.model.GamePlayer;
+import com.baboon.model.Player;
+import com.baboon.model.Position;
+import com.baboon.model.Team;
+import com.baboon.repository.GamePlayerRepository;
+import com.baboon.repository.GameRepository;
+import com.baboon.repository.PlayerRepository;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.sqlite.SQLiteDataSource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.logging.Logger;
+
+/**
+ * Synthetic SQLite databases for benchmarks, generated through the real
+ * repositories and cached under build/jmh-data so each size is only built once.
+ */
+public final class BenchmarkDatabase {
+
+    private static final Path DIR = Path.of(System.getProperty("baboon.bench.dir", "build/jmh-data"));
+    private static final int PLAYERS = 40;
+    private static final int COMMIT_EVERY = 10_000;
+    private static final long HISTORY_MINUTES = 3L * 365 * 24 * 60;
+
+    private BenchmarkDatabase() {}
+
+    /**
+     * Returns a pooled DataSource over the cached database with the given number of games.
+     */
+    public static HikariDataSource open(int games) {
+        return pool(ensure(games));
+    }
+
+    /**
+     * Returns a pooled DataSource over a private copy of the cached database,
+     * for benchmarks that write.
+     */
+    public static HikariDataSource openCopy(int games) {
+        try {
+            Path copy = Files.createTempFile(DIR, "baboon-" + games + "-", ".db");
+            Files.copy(ensure(games), copy, StandardCopyOption.REPLACE_EXISTING);
+            copy.toFile().deleteOnExit();
+            return pool(copy);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to copy benchmark database", e);
+        }
+    }
+
+    private static synchronized Path ensure(int games) {
+        Path file = DIR.resolve("baboon-" + games + ".db");
+        if (Files.exists(file)) {
+            // Bring databases cached by an older checkout up to the current schema
+            migrate(file);
+            return file;
+        }
+        try {
+            Files.createDirectories(DIR);
+            Path tmp = DIR.resolve("baboon-" + games + ".db.tmp");
+            Files.deleteIfExists(tmp);
+            generate(tmp, games);
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+            return file;
+        } catch (IOException | SQLException e) {
+            throw new RuntimeException("Failed to generate benchmark database", e);
+        }
+    }
+
+    private static HikariDataSource pool(Path file) {
+        // Mirrors the writer pool and pragma profile in application.yml
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:sqlite:" + file.toAbsolutePath());
+        config.setMaximumPoolSize(1);
+        config.addDataSourceProperty("journal_mode", "WAL");
+        config.addDataSourceProperty("synchronous", "NORMAL");
+        config.addDataSourceProperty("cache_size", "-16000");
+        config.addDataSourceProperty("mmap_size", "268435456");
+        config.addDataSourceProperty("busy_timeout", "5000");
+        return new HikariDataSource(config);
+    }
+
+    private static void migrate(Path file) {
+        SQLiteDataSource sqlite = new SQLiteDataSource();
+        sqlite.setUrl("jdbc:sqlite:" + file.toAbsolutePath());
+        Flyway.configure()
+                .dataSource(sqlite)
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+    }
+
+    private static void generate(Path file, int games) throws SQLException {
+        migrate(file);
+
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + file.toAbsolutePath())) {
+            conn.setAutoCommit(false);
+            DataSource shared = new SharedConnectionDataSource(conn);
+            PlayerRepository playerRepository = new PlayerRepository(shared, shared);
+            GameRepository gameRepository = new GameRepository(shared, shared);
+            GamePlayerRepository gamePlayerRepository = new GamePlayerRepository(shared, shared);
+
+            List<Player> players = new ArrayList<>();
+            for (int i = 0; i < PLAYERS; i++) {
+                players.add(playerRepository.findOrCreate("U" + (100000 + i), "player" + i));
+            }
+
+            Random random = new Random(42);
+            LocalDateTime now = LocalDateTime.now();
+            long spacing = Math.max(1, HISTORY_MINUTES / games);
+            for (int i = 0; i < games; i++) {
+                LocalDateTime start = now.minusMinutes((games - 1 - i) * spacing);
+                insertGame(gameRepository, gamePlayerRepository, players, random, start);
+                if ((i + 1) % COMMIT_EVERY == 0) conn.commit();
+            }
+            conn.commit();
+        }
+    }
+
+    private static void insertGame(GameRepository gameRepository, GamePlayerRepository gamePlayerRepository,
+                                   List<Player> players, Random random, LocalDateTime start) {
+        long gameId = gameRepository.create("C" + random.nextInt(3)).getId();
+        gameRepository.setStartTime(gameId, start);
+
+        int[] picked = random.ints(0, players.size()).distinct().limit(4).toArray();
+        for (int slot = 0; slot < 4; slot++) {
+            Team team = slot < 2 ? Team.BLUE : Team.RED;
+            Position position = slot % 2 == 0 ? Position.GOALIE : Position.FORWARD;
+            gamePlayerRepository.create(gameId, players.get(picked[slot]).getId(), team, position);
+        }
+
+        Team winner = random.nextBoolean() ? Team.BLUE : Team.RED;
+        int loserScore = random.nextInt(10);
+        for (GamePlayer gp : gamePlayerRepository.findByGameId(gameId)) {
+            // Forwards score most of the goals
+            int teamGoals = gp.getTeam() == winner ? 11 : loserScore;
+            int forwardShare = teamGoals - teamGoals / 4;
+            int goals = gp.getPosition() == Position.FORWARD ? forwardShare : teamGoals - forwardShare;
+            for (int g = 0; g < goals; g++) {
+                gamePlayerRepository.addGoal(gp.getId());
+            }
+        }
+
+        int blue = winner == Team.BLUE ? 11 : loserScore;
+        int red = winner == Team.RED ? 11 : loserScore;
+        gameRepository.complete(gameId, start.plusMinutes(10), blue, red);
+    }
+
+    /**
+     * Hands the same connection to every repository call so generation runs in a
+     * few large transactions; close and transaction control are left to the generator.
+     */
+    private static final class SharedConnectionDataSource implements DataSource {
+
+        private final Connection handle;
+
+        SharedConnectionDataSource(Connection conn) {
+            this.handle = (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "close", "commit", "rollback", "setAutoCommit" -> null;
+                        default -> {
+                            try {
+                                yield method.invoke(conn, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                        }
+                    });
+        }
+
+        @Override
+        public Connection getConnection() {
+            return handle;
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) {
+            return handle;
+        }
+
+        @Override
+        public PrintWriter getLogWriter() {
+            return null;
+        }
+
+        @Override
+        public void setLogWriter(PrintWriter out) {
+        }
+
+        @Override
+        public void setLoginTimeout(int seconds) {
+        }
+
+        @Override
+        public int getLoginTimeout() {
+            return 0;
+        }
+
+        @Override
+        public Logger getParentLogger() {
+            return Logger.getGlobal();
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> iface) throws SQLException {
+            throw new SQLException("Not a wrapper");
+        }
+
+        @Override
+        public boolean isWrapperFor(Class<?> iface) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.baboon.benchmark;
+
+import com.baboon.config.GoalJournalConfig;
+import com.baboon.config.LiveConfig;
+import com.baboon.config.MatchmakingConfig;
+import com.baboon.live.ScoreBroadcaster;
+import com.baboon.model.GameState;
+import com.baboon.model.LobbyState;
+import com.baboon.repository.GamePlayerRepository;
+import com.baboon.repository.GameRepository;
+import com.baboon.repository.PlayerRepository;
+import com.baboon.repository.RatingRepository;
+import com.baboon.repository.StatsRepository;
+import com.baboon.service.AnalyticsStore;
+import com.baboon.service.ChannelExecutor;
+import com.baboon.service.GameHistory;
+import com.baboon.service.GameService;
+import com.baboon.service.GoalJournal;
+import com.baboon.service.HeadToHeadIndex;
+import com.baboon.service.RatingService;
+import com.baboon.service.StatsService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micronaut.json.JsonMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GameServiceBenchmark {
+
+    private static final String CHANNEL = "CBENCH";
+
+    @Param({"1000", "100000", "1000000"})
+    public int games;
+
+    private HikariDataSource dataSource;
+    private ChannelExecutor channels;
+    private GoalJournal goalJournal;
+    private GameService gameService;
+    private LobbyState lobby;
+    private long[] gamePlayerIds;
+    private int goal;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Writes go to a private copy so the cached dataset stays untouched
+        dataSource = BenchmarkDatabase.openCopy(games);
+        GamePlayerRepository gamePlayerRepository = new GamePlayerRepository(dataSource, dataSource);
+        channels = new ChannelExecutor();
+        goalJournal = new GoalJournal(gamePlayerRepository, new GoalJournalConfig());
+        GameRepository gameRepository = new GameRepository(dataSource, dataSource);
+        GameHistory gameHistory = new GameHistory(gameRepository);
+        gameService = new GameService(
+                gameRepository,
+                new PlayerRepository(dataSource, dataSource),
+                goalJournal,
+                new StatsService(new StatsRepository(dataSource, dataSource), gameRepository, new AnalyticsStore(gameHistory)),
+                new RatingService(new RatingRepository(dataSource, dataSource), gameRepository, gameHistory),
+                new HeadToHeadIndex(gameHistory),
+                channels,
+                new MatchmakingConfig(),
+                // No subscribers, so goals pay only the empty-channel check
+                new ScoreBroadcaster(channels, JsonMapper.createDefault(), new LiveConfig(), new SimpleMeterRegistry()));
+
+        lobby = new LobbyState(CHANNEL);
+        for (int i = 0; i < 4; i++) {
+            lobby.addPlayer("U" + (100000 + i), "player" + i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        goalJournal.close();
+        channels.close();
+        dataSource.close();
+    }
+
+    @State(Scope.Benchmark)
+    public static class ActiveGame {
+        private long gameId;
+
+        @Setup(Level.Trial)
+        public void start(GameServiceBenchmark bench) {
+            GameState game = bench.gameService.startGame(bench.lobby);
+            gameId = game.getGameId();
+            bench.gamePlayerIds = game.getPlayers().stream()
+                    .mapToLong(GameState.GamePlayerState::getGamePlayerId)
+                    .toArray();
+        }
+
+        @TearDown(Level.Trial)
+        public void cancel(GameServiceBenchmark bench) {
+            bench.gameService.cancelGame(CHANNEL, gameId);
+        }
+    }
+
+    @Benchmark
+    public GameState startGame() {
+        GameState game = gameService.startGame(lobby);
+        // Frees the channel for the next invocation; a single UPDATE next to startGame's work
+        gameService.cancelGame(CHANNEL, game.getGameId());
+        return game;
+    }
+
+    @Benchmark
+    public void addGoal(ActiveGame activeGame) {
+        gameService.addGoal(CHANNEL, gamePlayerIds[goal++ & 3]);
+    }
+}
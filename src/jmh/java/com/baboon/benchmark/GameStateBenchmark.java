@@ -0,0 +1,134 @@
+package com.baboon.benchmark;
+
+import com.baboon.model.GameSnapshot;
+import com.baboon.model.GameState;
+import com.baboon.model.Position;
+import com.baboon.model.Team;
+import com.baboon.slack.view.GameView;
+import com.slack.api.model.Attachment;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Work done per goal click: participant check, player lookup, goal and the
+ * score reads a render needs. Run with -PjmhProfilers=gc to compare
+ * gc.alloc.rate.norm between the stream-based legacy state and GameState.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GameStateBenchmark {
+
+    private static final String[] USERS = {"U100000", "U100001", "U100002", "U100003"};
+    private static final long[] IDS = {101, 102, 103, 104};
+
+    private GameState game;
+    private LegacyGameState legacy;
+    private int click;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        game = new GameState(1, "CBENCH");
+        legacy = new LegacyGameState();
+        for (int i = 0; i < 4; i++) {
+            Team team = i < 2 ? Team.BLUE : Team.RED;
+            Position position = i % 2 == 0 ? Position.GOALIE : Position.FORWARD;
+            game.addPlayer(new GameState.GamePlayerState(IDS[i], i + 1, USERS[i], "player" + i, team, position));
+            legacy.players.add(new LegacyGameState.Player(IDS[i], USERS[i], team));
+        }
+    }
+
+    @Benchmark
+    public void goalBefore(Blackhole bh) {
+        int i = click++ & 3;
+        if (!legacy.isParticipant(USERS[i])) return;
+        LegacyGameState.Player player = legacy.getPlayerByGamePlayerId(IDS[i]);
+        player.goals++;
+        bh.consume(legacy.getBlueScore());
+        bh.consume(legacy.getRedScore());
+        bh.consume(legacy.getLeadingTeam());
+        bh.consume(legacy.isGameWinnable());
+        bh.consume(legacy.getTeam(Team.BLUE));
+        bh.consume(legacy.getTeam(Team.RED));
+    }
+
+    @Benchmark
+    public void goalAfter(Blackhole bh) {
+        int i = click++ & 3;
+        if (!game.isParticipant(USERS[i])) return;
+        game.addGoal(IDS[i]);
+        bh.consume(game.getBlueScore());
+        bh.consume(game.getRedScore());
+        bh.consume(game.getLeadingTeam());
+        bh.consume(game.isGameWinnable());
+        bh.consume(game.getTeam(Team.BLUE));
+        bh.consume(game.getTeam(Team.RED));
+    }
+
+    @Benchmark
+    public List<Attachment> goalAndRender() {
+        int i = click++ & 3;
+        game.addGoal(IDS[i]);
+        GameSnapshot snapshot = game.snapshot();
+        return GameView.build(snapshot);
+    }
+
+    /**
+     * GameState as it was before the counters and indexes: every read streams the player list.
+     */
+    static final class LegacyGameState {
+
+        static final class Player {
+            final long gamePlayerId;
+            final String slackUserId;
+            final Team team;
+            int goals;
+
+            Player(long gamePlayerId, String slackUserId, Team team) {
+                this.gamePlayerId = gamePlayerId;
+                this.slackUserId = slackUserId;
+                this.team = team;
+            }
+        }
+
+        final List<Player> players = new ArrayList<>();
+
+        int getBlueScore() {
+            return players.stream().filter(p -> p.team == Team.BLUE).mapToInt(p -> p.goals).sum();
+        }
+
+        int getRedScore() {
+            return players.stream().filter(p -> p.team == Team.RED).mapToInt(p -> p.goals).sum();
+        }
+
+        Team getLeadingTeam() {
+            int blue = getBlueScore();
+            int red = getRedScore();
+            if (blue > red) return Team.BLUE;
+            if (red > blue) return Team.RED;
+            return null;
+        }
+
+        boolean isGameWinnable() {
+            int blue = getBlueScore();
+            int red = getRedScore();
+            return Math.max(blue, red) >= 11 && Math.abs(blue - red) >= 2;
+        }
+
+        List<Player> getTeam(Team team) {
+            return players.stream().filter(p -> p.team == team).toList();
+        }
+
+        Player getPlayerByGamePlayerId(long gamePlayerId) {
+            return players.stream().filter(p -> p.gamePlayerId == gamePlayerId).findFirst().orElse(null);
+        }
+
+        boolean isParticipant(String userId) {
+            return players.stream().anyMatch(p -> p.slackUserId.equals(userId));
+        }
+    }
+}
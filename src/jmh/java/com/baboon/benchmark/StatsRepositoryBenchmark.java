@@ -0,0 +1,59 @@
+package com.baboon.benchmark;
+
+import com.baboon.model.StatsWindow;
+import com.baboon.repository.StatsRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StatsRepositoryBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int games;
+
+    @Param({"week", "month", "all"})
+    public String period;
+
+    private HikariDataSource dataSource;
+    private StatsRepository statsRepository;
+    private StatsWindow window;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = BenchmarkDatabase.open(games);
+        statsRepository = new StatsRepository(dataSource, dataSource);
+        LocalDate today = LocalDate.now();
+        window = switch (period) {
+            case "week" -> StatsWindow.weekly(today);
+            case "month" -> StatsWindow.month(today);
+            default -> StatsWindow.allTime();
+        };
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> playerStats() {
+        return statsRepository.getPlayerStats(window);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> forwardStats() {
+        return statsRepository.getForwardStats(window);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> goalieStats() {
+        return statsRepository.getGoalieStats(window);
+    }
+}
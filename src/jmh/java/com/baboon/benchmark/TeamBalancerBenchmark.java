@@ -0,0 +1,42 @@
+package com.baboon.benchmark;
+
+import com.baboon.service.TeamBalancer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Solver time for one lobby (exact) and for larger pools split across several
+ * games (heuristic). Run with -PjmhProfilers=gc to check allocation stays at
+ * the few fixed buffers per call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TeamBalancerBenchmark {
+
+    @Param({"4", "8", "16", "48"})
+    public int players;
+
+    private double[] ratings;
+    private double[] goalieShares;
+    private int[] slots;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        ratings = new double[players];
+        goalieShares = new double[players];
+        for (int i = 0; i < players; i++) {
+            ratings[i] = 1500 + random.nextGaussian() * 150;
+            goalieShares[i] = random.nextDouble();
+        }
+        slots = new int[players];
+    }
+
+    @Benchmark
+    public double solve() {
+        return TeamBalancer.solve(ratings, goalieShares, slots);
+    }
+}
@@ -0,0 +1,165 @@
+package com.baboon.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local stand-in for the Slack Web API. Answers the methods the bot calls
+ * with minimal well-formed responses, counts every call, and can add latency
+ * and reject a share of calls with 429 + Retry-After like Slack's rate limiter.
+ * Methods it does not know are answered with {"ok":true}.
+ */
+public final class FakeSlackApi implements AutoCloseable {
+
+    public static final String BOT_USER_ID = "UBABOON";
+    public static final String TEAM_ID = "T0LOAD";
+
+    private final HttpServer server;
+    private final Duration latency;
+    private final Duration jitter;
+    private final double rateLimitShare;
+    private final AtomicLong nextTs = new AtomicLong(1_700_000_000_000_000L);
+    private final Map<String, LongAdder> calls = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> rateLimited = new ConcurrentHashMap<>();
+
+    /**
+     * @param latency        fixed delay added to every call
+     * @param jitter         extra uniform random delay, up to this much
+     * @param rateLimitShare fraction of calls, 0..1, answered with 429
+     */
+    public FakeSlackApi(Duration latency, Duration jitter, double rateLimitShare) throws IOException {
+        this.latency = latency;
+        this.jitter = jitter;
+        this.rateLimitShare = rateLimitShare;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/", this::handle);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+    }
+
+    /**
+     * Base URL to configure as slack.api-url.
+     */
+    public String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/api/";
+    }
+
+    /**
+     * Calls served per API method, rate-limited ones included.
+     */
+    public Map<String, Long> calls() {
+        Map<String, Long> counts = new TreeMap<>();
+        calls.forEach((method, count) -> counts.put(method, count.sum()));
+        return counts;
+    }
+
+    /**
+     * Calls answered with 429 per API method.
+     */
+    public Map<String, Long> rateLimited() {
+        Map<String, Long> counts = new TreeMap<>();
+        rateLimited.forEach((method, count) -> counts.put(method, count.sum()));
+        return counts;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            String method = path.substring(path.lastIndexOf('/') + 1);
+            Map<String, String> params = parseForm(new String(exchange.getRequestBody().readAllBytes(),
+                    StandardCharsets.UTF_8));
+            calls.computeIfAbsent(method, m -> new LongAdder()).increment();
+
+            delay();
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (rateLimitShare > 0 && random.nextDouble() < rateLimitShare) {
+                rateLimited.computeIfAbsent(method, m -> new LongAdder()).increment();
+                exchange.getResponseHeaders().add("Retry-After", "1");
+                respond(exchange, 429, "{\"ok\":false,\"error\":\"ratelimited\"}");
+                return;
+            }
+            respond(exchange, 200, answer(method, params));
+        }
+    }
+
+    private String answer(String method, Map<String, String> params) {
+        String channel = params.getOrDefault("channel", "");
+        return switch (method) {
+            case "auth.test" -> "{\"ok\":true,\"url\":\"https://load.slack.com/\",\"team\":\"load\","
+                    + "\"user\":\"baboon\",\"team_id\":\"" + TEAM_ID + "\",\"user_id\":\"" + BOT_USER_ID + "\","
+                    + "\"bot_id\":\"BBABOON\"}";
+            case "chat.postMessage" -> "{\"ok\":true,\"channel\":\"" + channel + "\",\"ts\":\"" + nextTs() + "\"}";
+            case "chat.update" -> "{\"ok\":true,\"channel\":\"" + channel + "\",\"ts\":\""
+                    + params.getOrDefault("ts", "") + "\"}";
+            case "chat.delete" -> "{\"ok\":true,\"channel\":\"" + channel + "\",\"ts\":\""
+                    + params.getOrDefault("ts", "") + "\"}";
+            case "users.info" -> {
+                String user = params.getOrDefault("user", "");
+                yield "{\"ok\":true,\"user\":{\"id\":\"" + user + "\",\"name\":\"" + user.toLowerCase()
+                        + "\",\"profile\":{\"display_name\":\"" + user.toLowerCase() + "\"}}}";
+            }
+            case "users.list" -> "{\"ok\":true,\"members\":[],\"response_metadata\":{\"next_cursor\":\"\"}}";
+            default -> "{\"ok\":true}";
+        };
+    }
+
+    private String nextTs() {
+        long micros = nextTs.getAndIncrement();
+        return String.format("%d.%06d", micros / 1_000_000, micros % 1_000_000);
+    }
+
+    private void delay() {
+        long nanos = latency.toNanos();
+        if (!jitter.isZero()) {
+            nanos += ThreadLocalRandom.current().nextLong(jitter.toNanos() + 1);
+        }
+        if (nanos <= 0) return;
+        try {
+            Thread.sleep(Duration.ofNanos(nanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> parseForm(String body) {
+        Map<String, String> params = new HashMap<>();
+        if (body.isEmpty()) return params;
+        for (String pair : body.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq <= 0) continue;
+            params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+}
@@ -0,0 +1,263 @@
+package com.baboon.loadtest;
+
+import com.baboon.Application;
+import com.baboon.model.GameState;
+import com.baboon.model.Team;
+import com.baboon.service.GameService;
+import com.baboon.slack.SlackDispatcher;
+import com.slack.api.bolt.App;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.runtime.Micronaut;
+import io.micronaut.runtime.server.EmbeddedServer;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/**
+ * End-to-end load driver. Boots the application against {@link FakeSlackApi}
+ * and a throwaway database with Socket Mode off, then plays full games in N
+ * channels at once: four play mentions, Start Game, goal clicks until one team
+ * reaches the target, End Game. Reports request throughput, ack latency
+ * percentiles per request kind and the time each game took end to end.
+ * With transport=http the app runs in slack.mode http and every request is a
+ * signed POST to /slack/events on the Netty server.
+ *
+ * <pre>./gradlew loadtest -PloadtestArgs="channels=50 games=10 latency=80 jitter=120 ratelimit=0.02"</pre>
+ */
+public final class LoadTest {
+
+    private static final String SIGNING_SECRET = "loadtest-signing-secret";
+    private static final Duration STEP_TIMEOUT = Duration.ofSeconds(30);
+
+    private final SlackTraffic traffic;
+    private final GameService gameService;
+    private final int goalsToWin;
+    private final String transport;
+    private final Map<String, Latencies> acks = new ConcurrentHashMap<>();
+    private final Latencies games = new Latencies();
+    private final LongAdder failedRequests = new LongAdder();
+    private final LongAdder failedGames = new LongAdder();
+
+    private LoadTest(SlackTraffic traffic, GameService gameService, int goalsToWin, String transport) {
+        this.traffic = traffic;
+        this.gameService = gameService;
+        this.goalsToWin = goalsToWin;
+        this.transport = transport;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int channels = Integer.parseInt(options.getOrDefault("channels", "20"));
+        int gamesPerChannel = Integer.parseInt(options.getOrDefault("games", "5"));
+        int goalsToWin = Integer.parseInt(options.getOrDefault("goals", "10"));
+        Duration latency = Duration.ofMillis(Long.parseLong(options.getOrDefault("latency", "50")));
+        Duration jitter = Duration.ofMillis(Long.parseLong(options.getOrDefault("jitter", "50")));
+        double rateLimitShare = Double.parseDouble(options.getOrDefault("ratelimit", "0"));
+        boolean overHttp = options.getOrDefault("transport", "app").equals("http");
+
+        Path dir = Files.createTempDirectory("baboon-loadtest");
+        String dbUrl = "jdbc:sqlite:" + dir.resolve("baboon.db").toAbsolutePath();
+
+        try (FakeSlackApi slackApi = new FakeSlackApi(latency, jitter, rateLimitShare)) {
+            Map<String, Object> properties = new HashMap<>();
+            properties.put("datasources.default.url", dbUrl);
+            properties.put("datasources.read.url", dbUrl);
+            properties.put("slack.bot-token", "xoxb-loadtest");
+            properties.put("slack.app-token", "xapp-loadtest");
+            properties.put("slack.signing-secret", SIGNING_SECRET);
+            properties.put("slack.api-url", slackApi.url());
+            properties.put("slack.mode", overHttp ? "http" : "none");
+
+            try (ApplicationContext context = Micronaut.build(args)
+                    .mainClass(Application.class)
+                    .properties(properties)
+                    .start()) {
+                SlackTraffic traffic;
+                if (overHttp) {
+                    URI endpoint = context.getBean(EmbeddedServer.class).getURI().resolve("/slack/events");
+                    traffic = SlackTraffic.overHttp(endpoint, SIGNING_SECRET);
+                } else {
+                    App app = context.getBean(App.class);
+                    app.start();
+                    traffic = SlackTraffic.inProcess(app, SIGNING_SECRET);
+                }
+                LoadTest test = new LoadTest(traffic, context.getBean(GameService.class), goalsToWin,
+                        overHttp ? "HTTP Events API" : "in-process App");
+                SlackDispatcher dispatcher = context.getBean(SlackDispatcher.class);
+
+                long start = System.nanoTime();
+                test.run(channels, gamesPerChannel);
+                long acked = System.nanoTime() - start;
+                await(() -> dispatcher.getQueueDepth() == 0, "handler queue to drain");
+                long drained = System.nanoTime() - start;
+
+                test.report(channels, gamesPerChannel, acked, drained, dispatcher, slackApi);
+            }
+        }
+    }
+
+    private void run(int channels, int gamesPerChannel) throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < channels; c++) {
+                int channel = c;
+                futures.add(executor.submit(() -> {
+                    playChannel(channel, gamesPerChannel);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+    }
+
+    private void playChannel(int channel, int gamesPerChannel) throws Exception {
+        String channelId = String.format("CLOAD%04d", channel);
+        List<String> users = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            users.add(String.format("ULOAD%04d%d", channel, i));
+        }
+        Random random = new Random(channel);
+
+        for (int g = 0; g < gamesPerChannel; g++) {
+            long start = System.nanoTime();
+            try {
+                playGame(channelId, users, random);
+                games.record(System.nanoTime() - start);
+            } catch (IllegalStateException e) {
+                failedGames.increment();
+                for (GameState stuck : gameService.getActiveGames(channelId)) {
+                    send("game_cancel", () -> traffic.click(channelId, users.get(0), "game_cancel",
+                            String.valueOf(stuck.getGameId())));
+                }
+            }
+        }
+    }
+
+    private void playGame(String channelId, List<String> users, Random random) throws Exception {
+        for (String user : users) {
+            send("mention", () -> traffic.mention(channelId, user, "play"));
+        }
+        send("lobby_start", () -> traffic.click(channelId, users.get(0), "lobby_start", null));
+        await(() -> !gameService.getActiveGames(channelId).isEmpty(), "game to start in " + channelId);
+
+        GameState game = gameService.getActiveGames(channelId).get(0);
+        List<GameState.GamePlayerState> players = game.getPlayers();
+        int blue = 0;
+        int red = 0;
+        while (blue < goalsToWin && red < goalsToWin) {
+            GameState.GamePlayerState scorer = players.get(random.nextInt(players.size()));
+            send("game_goal", () -> traffic.click(channelId, scorer.getSlackUserId(),
+                    "game_goal_" + scorer.getGamePlayerId(), null));
+            if (scorer.getTeam() == Team.BLUE) blue++; else red++;
+        }
+        send("game_end", () -> traffic.click(channelId, users.get(0), "game_end", String.valueOf(game.getGameId())));
+        await(() -> gameService.getActiveGame(channelId, game.getGameId()) == null, "game to end in " + channelId);
+    }
+
+    @FunctionalInterface
+    private interface SlackRequest {
+        int send() throws Exception;
+    }
+
+    private void send(String kind, SlackRequest request) throws Exception {
+        long start = System.nanoTime();
+        int status = request.send();
+        acks.computeIfAbsent(kind, k -> new Latencies()).record(System.nanoTime() - start);
+        if (status != 200) {
+            failedRequests.increment();
+        }
+    }
+
+    private void report(int channels, int gamesPerChannel, long ackedNanos, long drainedNanos,
+                        SlackDispatcher dispatcher, FakeSlackApi slackApi) {
+        long requests = acks.values().stream().mapToLong(Latencies::count).sum();
+        System.out.printf("%nChannels: %d, games per channel: %d, first to %d goals, via %s%n",
+                channels, gamesPerChannel, goalsToWin, transport);
+        System.out.printf("Requests: %d in %.2fs (%.0f req/s acked), handlers drained after %.2fs%n",
+                requests, ackedNanos / 1e9, requests / (ackedNanos / 1e9), drainedNanos / 1e9);
+        System.out.printf("Failed requests: %d, failed games: %d%n", failedRequests.sum(), failedGames.sum());
+
+        System.out.printf("%nAck latency (ms)%n%-12s %8s %8s %8s %8s %8s%n", "kind", "count", "p50", "p90", "p99", "max");
+        acks.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(e -> e.getValue().print(e.getKey()));
+        System.out.printf("%nGame duration (ms)%n");
+        games.print("whole game");
+
+        System.out.printf("%nHandler work after ack: %d tasks, mean %.1f ms, max %.1f ms%n",
+                dispatcher.getCompletedCount(), dispatcher.getMeanLatencyMillis(), dispatcher.getMaxLatencyMillis());
+        System.out.printf("Slack API calls: %s%n", slackApi.calls());
+        System.out.printf("Slack API 429s:  %s%n", slackApi.rateLimited());
+    }
+
+    private static void await(BooleanSupplier condition, String what) throws InterruptedException {
+        long deadline = System.nanoTime() + STEP_TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Timed out waiting for " + what);
+            }
+            Thread.sleep(2);
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0 && !arg.startsWith("-")) {
+                options.put(arg.substring(0, eq), arg.substring(eq + 1));
+            }
+        }
+        return options;
+    }
+
+    /**
+     * Append-only latency samples; percentiles are read once, at the end of the run.
+     */
+    private static final class Latencies {
+
+        private long[] samples = new long[1024];
+        private int size;
+
+        synchronized void record(long nanos) {
+            if (size == samples.length) {
+                samples = Arrays.copyOf(samples, size * 2);
+            }
+            samples[size++] = nanos;
+        }
+
+        synchronized long count() {
+            return size;
+        }
+
+        synchronized void print(String kind) {
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            System.out.printf("%-12s %8d %8.1f %8.1f %8.1f %8.1f%n", kind, size,
+                    percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                    size == 0 ? 0 : sorted[size - 1] / 1e6);
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) return 0;
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.baboon.loadtest;
+
+import com.slack.api.app_backend.SlackSignature;
+import com.slack.api.bolt.App;
+import com.slack.api.bolt.request.Request;
+import com.slack.api.bolt.request.RequestHeaders;
+import com.slack.api.bolt.response.Response;
+import com.slack.api.bolt.util.SlackRequestParser;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Builds signed app_mention and block_actions payloads the way Slack sends
+ * them and delivers them either straight to the Bolt {@link App} or over HTTP
+ * to the Events API endpoint, so parsing, signature checks, middleware and
+ * handler acks are all on the measured path. Returns the HTTP status Slack
+ * would have seen.
+ */
+final class SlackTraffic {
+
+    @FunctionalInterface
+    private interface Transport {
+        int send(String body, Map<String, List<String>> headers) throws Exception;
+    }
+
+    private final Transport transport;
+    private final SlackSignature.Generator signer;
+    private final AtomicLong nextEventId = new AtomicLong();
+
+    private SlackTraffic(Transport transport, String signingSecret) {
+        this.transport = transport;
+        this.signer = new SlackSignature.Generator(signingSecret);
+    }
+
+    /**
+     * Runs requests through the app in-process, as Socket Mode does.
+     */
+    static SlackTraffic inProcess(App app, String signingSecret) {
+        SlackRequestParser parser = new SlackRequestParser(app.config());
+        return new SlackTraffic((body, headers) -> {
+            Request<?> request = parser.parse(SlackRequestParser.HttpRequest.builder()
+                    .requestUri("/slack/events")
+                    .headers(new RequestHeaders(headers))
+                    .requestBody(body)
+                    .remoteAddress("127.0.0.1")
+                    .build());
+            Response response = app.run(request);
+            return response.getStatusCode();
+        }, signingSecret);
+    }
+
+    /**
+     * POSTs requests to a running Events API endpoint.
+     */
+    static SlackTraffic overHttp(URI endpoint, String signingSecret) {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        return new SlackTraffic((body, headers) -> {
+            HttpRequest.Builder request = HttpRequest.newBuilder(endpoint)
+                    .POST(HttpRequest.BodyPublishers.ofString(body));
+            headers.forEach((name, values) -> values.forEach(value -> request.header(name, value)));
+            return client.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        }, signingSecret);
+    }
+
+    int mention(String channelId, String userId, String text) throws Exception {
+        long id = nextEventId.incrementAndGet();
+        String ts = System.currentTimeMillis() / 1000 + "." + String.format("%06d", id % 1_000_000);
+        String body = "{\"token\":\"load\",\"team_id\":\"" + FakeSlackApi.TEAM_ID + "\",\"api_app_id\":\"ALOAD\","
+                + "\"type\":\"event_callback\",\"event_id\":\"EvLOAD" + id + "\","
+                + "\"event_time\":" + System.currentTimeMillis() / 1000 + ","
+                + "\"event\":{\"type\":\"app_mention\",\"user\":\"" + userId + "\","
+                + "\"text\":\"<@" + FakeSlackApi.BOT_USER_ID + "> " + text + "\","
+                + "\"ts\":\"" + ts + "\",\"channel\":\"" + channelId + "\",\"event_ts\":\"" + ts + "\"}}";
+        return send(body, "application/json");
+    }
+
+    int click(String channelId, String userId, String actionId, String value) throws Exception {
+        String payload = "{\"type\":\"block_actions\",\"team\":{\"id\":\"" + FakeSlackApi.TEAM_ID + "\"},"
+                + "\"user\":{\"id\":\"" + userId + "\"},\"api_app_id\":\"ALOAD\",\"token\":\"load\","
+                + "\"trigger_id\":\"" + nextEventId.incrementAndGet() + "\","
+                + "\"channel\":{\"id\":\"" + channelId + "\"},"
+                + "\"container\":{\"type\":\"message\",\"channel_id\":\"" + channelId + "\"},"
+                + "\"actions\":[{\"type\":\"button\",\"action_id\":\"" + actionId + "\",\"block_id\":\"load\","
+                + "\"value\":\"" + (value != null ? value : "") + "\"}]}";
+        String body = "payload=" + URLEncoder.encode(payload, StandardCharsets.UTF_8);
+        return send(body, "application/x-www-form-urlencoded");
+    }
+
+    private int send(String body, String contentType) throws Exception {
+        String timestamp = String.valueOf(System.currentTimeMillis() / 1000);
+        return transport.send(body, Map.of(
+                "Content-Type", List.of(contentType),
+                SlackSignature.HeaderNames.X_SLACK_REQUEST_TIMESTAMP, List.of(timestamp),
+                SlackSignature.HeaderNames.X_SLACK_SIGNATURE, List.of(signer.generate(timestamp, body))));
+    }
+}
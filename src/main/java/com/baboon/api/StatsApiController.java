@@ -0,0 +1,233 @@
+package com.baboon.api;
+
+import com.baboon.model.GamePlayer;
+import com.baboon.model.GameResult;
+import com.baboon.model.Player;
+import com.baboon.model.PlayerRating;
+import com.baboon.model.StatsWindow;
+import com.baboon.service.HeadToHeadIndex;
+import com.baboon.service.PlayerService;
+import com.baboon.service.RatingService;
+import com.baboon.service.StatsService;
+import com.baboon.service.StatsSnapshot;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Get;
+import io.micronaut.http.annotation.Header;
+import io.micronaut.http.annotation.PathVariable;
+import io.micronaut.http.annotation.QueryValue;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.annotation.ExecuteOn;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Read-only JSON view of the stats, recent games and player profiles. Every
+ * response carries a weak ETag built from the stats generation, which only
+ * moves when a game completes, so a poller sending If-None-Match gets a 304
+ * without the request touching SQLite. Bodies are gzip-compressed by the
+ * server when the client accepts it; the tag is weak because the gzip and
+ * identity encodings of a response share it.
+ */
+@Controller("/api")
+@Requires(property = "baboon.api.enabled", value = StringUtils.TRUE)
+@ExecuteOn(TaskExecutors.BLOCKING)
+public class StatsApiController {
+
+    private static final Pattern DATE_RANGE_PATTERN = Pattern.compile("(\\d{4}-\\d{2}-\\d{2})\\.\\.(\\d{4}-\\d{2}-\\d{2})");
+    private static final int DEFAULT_RECENT_GAMES = 20;
+    private static final int PROFILE_ROWS = 5;
+
+    private final StatsService statsService;
+    private final RatingService ratingService;
+    private final HeadToHeadIndex headToHead;
+    private final PlayerService playerService;
+    // The generation restarts at zero with the process, so tags also carry the start time
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    public StatsApiController(StatsService statsService, RatingService ratingService,
+                              HeadToHeadIndex headToHead, PlayerService playerService) {
+        this.statsService = statsService;
+        this.ratingService = ratingService;
+        this.headToHead = headToHead;
+        this.playerService = playerService;
+    }
+
+    /**
+     * Rankings, top scorers and goalies for week (default), month, all, or
+     * an inclusive YYYY-MM-DD..YYYY-MM-DD range.
+     */
+    @Get("/stats")
+    public HttpResponse<?> stats(@QueryValue(defaultValue = "week") String period,
+                                 @Header(HttpHeaders.IF_NONE_MATCH) @Nullable String ifNoneMatch) {
+        StatsWindow window;
+        try {
+            window = parseWindow(period);
+        } catch (IllegalArgumentException e) {
+            return HttpResponse.badRequest(Map.of("error", e.getMessage()));
+        }
+        String key = "stats:" + (window.isAllTime() ? "all" : window.from() + ".." + window.to());
+        String current = etag(statsService.getGeneration(), key);
+        if (matches(ifNoneMatch, current)) {
+            return notModified(current);
+        }
+
+        StatsSnapshot snapshot = statsService.getStats(window);
+        Map<String, List<Map<String, Object>>> rows = snapshot.getRows();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("from", window.from() != null ? window.from().toString() : null);
+        body.put("to", window.to() != null ? window.to().toString() : null);
+        body.put("rankings", rows.get("Rankings"));
+        body.put("topScorers", rows.get("Top Scorers"));
+        body.put("goalies", rows.get("Goalies"));
+        return ok(body, etag(snapshot.getGeneration(), key));
+    }
+
+    /**
+     * The most recently completed games, newest first.
+     */
+    @Get("/games/recent")
+    public HttpResponse<?> recentGames(@QueryValue(defaultValue = "" + DEFAULT_RECENT_GAMES) int limit,
+                                       @Header(HttpHeaders.IF_NONE_MATCH) @Nullable String ifNoneMatch) {
+        int capped = Math.max(1, Math.min(limit, StatsService.MAX_RECENT_GAMES));
+        // Read before loading, so a game finishing meanwhile leaves this tag already stale
+        long generation = statsService.getGeneration();
+        String etag = etag(generation, "games:" + capped);
+        if (matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+
+        List<Map<String, Object>> games = new ArrayList<>();
+        for (GameResult result : statsService.getRecentGames(capped)) {
+            games.add(gameBody(result));
+        }
+        return ok(Map.of("games", games), etag);
+    }
+
+    /**
+     * Rating, rank, best partners and toughest opponents of one player.
+     */
+    @Get("/players/{slackUserId}")
+    public HttpResponse<?> player(@PathVariable String slackUserId,
+                                  @Header(HttpHeaders.IF_NONE_MATCH) @Nullable String ifNoneMatch) {
+        long generation = statsService.getGeneration();
+        String etag = etag(generation, "player:" + slackUserId);
+        if (matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+
+        Optional<Player> found = playerService.findBySlackUserId(slackUserId);
+        if (found.isEmpty()) {
+            return HttpResponse.notFound(Map.of("error", "Unknown player " + slackUserId));
+        }
+        Player player = found.get();
+        PlayerRating rating = ratingService.getRating(player.getId());
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("slackUserId", player.getSlackUserId());
+        body.put("displayName", player.getDisplayName());
+        body.put("rating", rating != null ? Math.round(rating.rating()) : null);
+        body.put("ratedGames", rating != null ? rating.games() : 0);
+        body.put("rank", rating != null ? ratingService.getRank(player.getId()) : null);
+        body.put("ratedPlayers", ratingService.getRatedCount());
+        body.put("partners", headToHead.getPartners(player.getId(), PROFILE_ROWS));
+        body.put("opponents", headToHead.getOpponents(player.getId(), PROFILE_ROWS));
+        return ok(body, etag);
+    }
+
+    private static StatsWindow parseWindow(String period) {
+        LocalDate today = LocalDate.now();
+        Matcher range = DATE_RANGE_PATTERN.matcher(period);
+        if (range.matches()) {
+            try {
+                LocalDate from = LocalDate.parse(range.group(1));
+                LocalDate to = LocalDate.parse(range.group(2));
+                if (from.isAfter(to)) {
+                    throw new IllegalArgumentException("The start date must not be after the end date");
+                }
+                return StatsWindow.range(from, to);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid date in period " + period);
+            }
+        }
+        return switch (period) {
+            case "week" -> StatsWindow.weekly(today);
+            case "month" -> StatsWindow.month(today);
+            case "all" -> StatsWindow.allTime();
+            default -> throw new IllegalArgumentException(
+                    "period must be week, month, all or YYYY-MM-DD..YYYY-MM-DD");
+        };
+    }
+
+    private static Map<String, Object> gameBody(GameResult result) {
+        Map<String, Object> game = new LinkedHashMap<>();
+        game.put("id", result.gameId());
+        game.put("endTime", result.endTime() != null ? result.endTime().toString() : null);
+        game.put("blueScore", result.blueScore());
+        game.put("redScore", result.redScore());
+        game.put("winner", result.winner() != null ? result.winner().name() : null);
+        List<Map<String, Object>> players = new ArrayList<>(result.players().size());
+        for (GamePlayer gp : result.players()) {
+            Map<String, Object> player = new LinkedHashMap<>();
+            player.put("slackUserId", gp.getSlackUserId());
+            player.put("displayName", gp.getDisplayName());
+            player.put("team", gp.getTeam().name());
+            player.put("position", gp.getPosition().name());
+            player.put("goals", gp.getGoals());
+            players.add(player);
+        }
+        game.put("players", players);
+        return game;
+    }
+
+    private String etag(long generation, String key) {
+        return "W/\"" + epoch + "-" + generation + "-" + key + "\"";
+    }
+
+    /**
+     * If-None-Match uses weak comparison, so the tag matches with or without its W/ prefix.
+     */
+    private static boolean matches(@Nullable String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        String opaque = opaqueTag(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) return true;
+            if (opaqueTag(tag).equals(opaque)) return true;
+        }
+        return false;
+    }
+
+    private static String opaqueTag(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private static MutableHttpResponse<?> ok(Object body, String etag) {
+        return cacheHeaders(HttpResponse.ok(body), etag);
+    }
+
+    private static MutableHttpResponse<?> notModified(String etag) {
+        return cacheHeaders(HttpResponse.notModified(), etag);
+    }
+
+    // no-cache lets clients store the body but makes them revalidate every time
+    private static MutableHttpResponse<?> cacheHeaders(MutableHttpResponse<?> response, String etag) {
+        return response
+                .header(HttpHeaders.ETAG, etag)
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    }
+}
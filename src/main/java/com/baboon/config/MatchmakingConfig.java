@@ -0,0 +1,26 @@
+package com.baboon.config;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+@ConfigurationProperties("baboon.matchmaking")
+public class MatchmakingConfig {
+
+    private int tables = 1;
+    private boolean winnersStayOn = true;
+
+    public int getTables() {
+        return tables;
+    }
+
+    public void setTables(int tables) {
+        this.tables = tables;
+    }
+
+    public boolean isWinnersStayOn() {
+        return winnersStayOn;
+    }
+
+    public void setWinnersStayOn(boolean winnersStayOn) {
+        this.winnersStayOn = winnersStayOn;
+    }
+}
@@ -2,12 +2,29 @@ package com.baboon.config;
 
 import io.micronaut.context.annotation.ConfigurationProperties;
 
+import java.time.Duration;
+
 @ConfigurationProperties("slack")
 public class SlackConfig {
 
+    /**
+     * How Slack reaches the bot: outbound Socket Mode connections, the HTTP
+     * Events API on the Netty server, or not at all (load testing).
+     */
+    public enum Mode {
+        SOCKET,
+        HTTP,
+        NONE
+    }
+
     private String botToken;
     private String appToken;
     private String signingSecret;
+    private String apiUrl;
+    private Mode mode = Mode.SOCKET;
+    private int socketConnections = 2;
+    private Duration healthCheckInterval = Duration.ofSeconds(30);
+    private Duration maxReconnectBackoff = Duration.ofMinutes(2);
 
     public String getBotToken() {
         return botToken;
@@ -32,4 +49,47 @@ public class SlackConfig {
     public void setSigningSecret(String signingSecret) {
         this.signingSecret = signingSecret;
     }
+
+    public String getApiUrl() {
+        return apiUrl;
+    }
+
+    /**
+     * Web API base URL, e.g. a local stand-in; unset means https://slack.com/api/.
+     */
+    public void setApiUrl(String apiUrl) {
+        this.apiUrl = apiUrl;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public int getSocketConnections() {
+        return socketConnections;
+    }
+
+    public void setSocketConnections(int socketConnections) {
+        this.socketConnections = socketConnections;
+    }
+
+    public Duration getHealthCheckInterval() {
+        return healthCheckInterval;
+    }
+
+    public void setHealthCheckInterval(Duration healthCheckInterval) {
+        this.healthCheckInterval = healthCheckInterval;
+    }
+
+    public Duration getMaxReconnectBackoff() {
+        return maxReconnectBackoff;
+    }
+
+    public void setMaxReconnectBackoff(Duration maxReconnectBackoff) {
+        this.maxReconnectBackoff = maxReconnectBackoff;
+    }
 }
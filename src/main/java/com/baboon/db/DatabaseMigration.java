@@ -1,17 +1,15 @@
 package com.baboon.db;
 
-import io.micronaut.context.event.ApplicationEventListener;
-import io.micronaut.core.order.Ordered;
-import io.micronaut.runtime.event.ApplicationStartupEvent;
 import jakarta.inject.Singleton;
 import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.sql.DataSource;
 
 @Singleton
-public class DatabaseMigration implements ApplicationEventListener<ApplicationStartupEvent>, Ordered {
+public class DatabaseMigration {
 
     private static final Logger LOG = LoggerFactory.getLogger(DatabaseMigration.class);
 
@@ -21,19 +19,19 @@ public class DatabaseMigration implements ApplicationEventListener<ApplicationSt
         this.dataSource = dataSource;
     }
 
-    @Override
-    public void onApplicationEvent(ApplicationStartupEvent event) {
+    /**
+     * Brings the schema up to date; run by StartupOrchestrator before any warmer.
+     */
+    public void migrate() {
         LOG.info("Running database migrations...");
-        Flyway flyway = Flyway.configure()
+        FluentConfiguration config = Flyway.configure()
                 .dataSource(dataSource)
-                .locations("classpath:db/migration")
-                .load();
+                .locations("classpath:db/migration");
+        if (ImageResourceProvider.inNativeImage()) {
+            config.resourceProvider(new ImageResourceProvider("db/migration"));
+        }
+        Flyway flyway = config.load();
         flyway.migrate();
         LOG.info("Database migrations complete.");
     }
-
-    @Override
-    public int getOrder() {
-        return -100; // Run before other startup listeners
-    }
 }
@@ -0,0 +1,109 @@
+package com.baboon.db;
+
+import org.flywaydb.core.api.ResourceProvider;
+import org.flywaydb.core.api.resource.LoadableResource;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Serves Flyway migrations from inside a native image. Flyway finds
+ * classpath migrations by listing jar entries or directories, and a native
+ * image has neither, so this lists the image's resource file system instead.
+ * The scripts are read once, up front; there are only a handful of them.
+ */
+class ImageResourceProvider implements ResourceProvider {
+
+    private final List<LoadableResource> resources;
+
+    ImageResourceProvider(String directory) {
+        try (FileSystem fs = FileSystems.newFileSystem(URI.create("resource:/"), Map.of("create", "true"));
+             Stream<Path> files = Files.list(fs.getPath(directory))) {
+            this.resources = files
+                    .map(file -> (LoadableResource) new Script(directory + "/" + file.getFileName(), read(file)))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to list migrations in the native image", e);
+        }
+    }
+
+    /**
+     * True when running as a native image rather than on a JVM.
+     */
+    static boolean inNativeImage() {
+        return System.getProperty("org.graalvm.nativeimage.imagecode") != null;
+    }
+
+    @Override
+    public LoadableResource getResource(String name) {
+        return resources.stream()
+                .filter(r -> r.getRelativePath().equals(name))
+                .findFirst()
+                .orElse(null);
+    }
+
+    @Override
+    public Collection<LoadableResource> getResources(String prefix, String[] suffixes) {
+        return resources.stream()
+                .filter(r -> r.getFilename().startsWith(prefix))
+                .filter(r -> Arrays.stream(suffixes).anyMatch(r.getFilename()::endsWith))
+                .toList();
+    }
+
+    private static String read(Path file) {
+        try {
+            return Files.readString(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read migration " + file, e);
+        }
+    }
+
+    private static final class Script extends LoadableResource {
+
+        private final String path;
+        private final String sql;
+
+        Script(String path, String sql) {
+            this.path = path;
+            this.sql = sql;
+        }
+
+        @Override
+        public Reader read() {
+            return new StringReader(sql);
+        }
+
+        @Override
+        public String getAbsolutePath() {
+            return path;
+        }
+
+        @Override
+        public String getAbsolutePathOnDisk() {
+            return path;
+        }
+
+        @Override
+        public String getFilename() {
+            return path.substring(path.lastIndexOf('/') + 1);
+        }
+
+        @Override
+        public String getRelativePath() {
+            return path;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.baboon.live;
+
+import com.baboon.service.GameService;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Get;
+import io.micronaut.http.annotation.PathVariable;
+import io.micronaut.http.sse.Event;
+import org.reactivestreams.Publisher;
+
+/**
+ * Live scoreboard for office displays: an event stream per Slack channel that
+ * starts with the active games and then follows every start, goal, completion
+ * and cancellation. Registered alongside the JSON stats API.
+ */
+@Controller("/api/live")
+@Requires(property = "baboon.api.enabled", value = StringUtils.TRUE)
+public class LiveScoreController {
+
+    private final ScoreBroadcaster broadcaster;
+    private final GameService gameService;
+
+    public LiveScoreController(ScoreBroadcaster broadcaster, GameService gameService) {
+        this.broadcaster = broadcaster;
+        this.gameService = gameService;
+    }
+
+    @Get(value = "/{channelId}", produces = MediaType.TEXT_EVENT_STREAM)
+    public Publisher<Event<String>> live(@PathVariable String channelId) {
+        return broadcaster.stream(channelId, () -> gameService.getActiveGames(channelId));
+    }
+}
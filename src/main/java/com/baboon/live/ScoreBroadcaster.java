@@ -0,0 +1,338 @@
+package com.baboon.live;
+
+import com.baboon.config.LiveConfig;
+import com.baboon.model.GameState;
+import com.baboon.service.ChannelExecutor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.exceptions.HttpStatusException;
+import io.micronaut.http.sse.Event;
+import io.micronaut.json.JsonMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Fans live score events out to Server-Sent Events subscribers per channel.
+ * {@link com.baboon.service.GameService} reports changes from inside the
+ * channel's mailbox; each event is serialized once and offered to every
+ * subscriber's bounded buffer without blocking. A subscriber whose buffer
+ * fills, because its connection is not keeping up, is completed and dropped;
+ * browsers reconnect on their own and start again from a fresh state event.
+ */
+@Singleton
+public class ScoreBroadcaster {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ScoreBroadcaster.class);
+
+    private final ChannelExecutor channels;
+    private final JsonMapper jsonMapper;
+    private final LiveConfig config;
+    private final ConcurrentHashMap<String, Set<Client>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Counter published;
+    private final Counter dropped;
+    private final AtomicBoolean heartbeatStarted = new AtomicBoolean();
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "live-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ScoreBroadcaster(ChannelExecutor channels, JsonMapper jsonMapper, LiveConfig config,
+                            MeterRegistry registry) {
+        this.channels = channels;
+        this.jsonMapper = jsonMapper;
+        this.config = config;
+        Gauge.builder("baboon.live.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Connected live scoreboard subscribers")
+                .register(registry);
+        this.published = Counter.builder("baboon.live.events")
+                .description("Score events fanned out to at least one subscriber")
+                .register(registry);
+        this.dropped = Counter.builder("baboon.live.dropped")
+                .description("Subscribers disconnected because their buffer was full")
+                .register(registry);
+    }
+
+    /**
+     * The channel's event stream. Each subscriber first gets a state event
+     * with the channel's active games. It is built in the channel's mailbox and
+     * the subscriber only joins the channel once it is queued, so no score
+     * change can reach the subscriber ahead of it.
+     */
+    public Publisher<Event<String>> stream(String channelId, Supplier<List<GameState>> activeGames) {
+        return subscriber -> subscribe(channelId, subscriber, activeGames);
+    }
+
+    public void gameStarted(GameState game) {
+        publish(game.getChannelId(), "start", () -> gameBody(game));
+    }
+
+    public void goalScored(GameState game, long gamePlayerId) {
+        publish(game.getChannelId(), "goal", () -> {
+            Map<String, Object> body = scoreBody(game);
+            body.put("scorer", playerBody(game.getPlayerByGamePlayerId(gamePlayerId)));
+            return body;
+        });
+    }
+
+    public void gameCompleted(GameState game) {
+        publish(game.getChannelId(), "complete", () -> {
+            Map<String, Object> body = scoreBody(game);
+            body.put("winner", game.getLeadingTeam() != null ? game.getLeadingTeam().name() : null);
+            return body;
+        });
+    }
+
+    public void gameCancelled(GameState game) {
+        publish(game.getChannelId(), "cancel", () -> scoreBody(game));
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @PreDestroy
+    public void close() {
+        heartbeat.shutdownNow();
+    }
+
+    private void publish(String channelId, String type, Supplier<Map<String, Object>> body) {
+        Set<Client> clients = subscribers.get(channelId);
+        // Nobody watching: skip building and serializing the event altogether
+        if (clients == null || clients.isEmpty()) return;
+
+        Event<String> event = event(type, body.get());
+        if (event == null) return;
+        for (Client client : clients) {
+            client.offer(event);
+        }
+        published.increment();
+    }
+
+    private void subscribe(String channelId, Subscriber<? super Event<String>> subscriber,
+                           Supplier<List<GameState>> activeGames) {
+        if (subscriberCount.incrementAndGet() > config.getMaxSubscribers()) {
+            subscriberCount.decrementAndGet();
+            subscriber.onSubscribe(new Subscription() {
+                @Override public void request(long n) {}
+                @Override public void cancel() {}
+            });
+            subscriber.onError(new HttpStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many live subscribers"));
+            return;
+        }
+
+        Client client = new Client(channelId, subscriber);
+        subscriber.onSubscribe(client);
+        startHeartbeat();
+
+        // Score changes are published from this same mailbox, so joining the channel
+        // right after the state is queued means every live event follows it
+        channels.submit(channelId, () -> {
+            try {
+                List<Map<String, Object>> games = new ArrayList<>();
+                for (GameState game : activeGames.get()) {
+                    games.add(gameBody(game));
+                }
+                Event<String> state = event("state", Map.of("games", games));
+                if (state == null) {
+                    client.fail(new IllegalStateException("Failed to serialize live state"));
+                    return null;
+                }
+                client.offer(state);
+                register(client);
+            } catch (Exception e) {
+                LOG.warn("Failed to send live state for channel {}", channelId, e);
+                client.fail(e);
+            }
+            return null;
+        });
+    }
+
+    private void register(Client client) {
+        subscribers.compute(client.channelId, (id, clients) -> {
+            Set<Client> set = clients != null ? clients : ConcurrentHashMap.newKeySet();
+            set.add(client);
+            return set;
+        });
+        // A client cancelled while joining would otherwise stay in the set
+        if (client.closed.get()) {
+            removeFromChannel(client);
+        }
+    }
+
+    private void unsubscribe(Client client) {
+        removeFromChannel(client);
+        subscriberCount.decrementAndGet();
+    }
+
+    private void removeFromChannel(Client client) {
+        subscribers.computeIfPresent(client.channelId, (id, clients) -> {
+            clients.remove(client);
+            return clients.isEmpty() ? null : clients;
+        });
+    }
+
+    /**
+     * Keeps idle connections open through proxies and flushes out subscribers
+     * that stopped reading, whose buffers then fill and get them dropped.
+     */
+    private void startHeartbeat() {
+        if (!heartbeatStarted.compareAndSet(false, true)) return;
+        long intervalMs = config.getHeartbeatInterval().toMillis();
+        heartbeat.scheduleWithFixedDelay(() -> {
+            Event<String> ping = Event.of("{}").name("ping");
+            subscribers.values().forEach(clients -> clients.forEach(client -> client.offer(ping)));
+        }, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private Event<String> event(String type, Map<String, Object> body) {
+        try {
+            return Event.of(jsonMapper.writeValueAsString(body))
+                    .name(type)
+                    .id(Long.toString(sequence.incrementAndGet()));
+        } catch (IOException e) {
+            LOG.warn("Failed to serialize live {} event", type, e);
+            return null;
+        }
+    }
+
+    private static Map<String, Object> scoreBody(GameState game) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("gameId", game.getGameId());
+        body.put("table", game.getTable());
+        body.put("blueScore", game.getBlueScore());
+        body.put("redScore", game.getRedScore());
+        return body;
+    }
+
+    private static Map<String, Object> gameBody(GameState game) {
+        Map<String, Object> body = scoreBody(game);
+        List<Map<String, Object>> players = new ArrayList<>(game.getPlayers().size());
+        for (GameState.GamePlayerState player : game.getPlayers()) {
+            players.add(playerBody(player));
+        }
+        body.put("players", players);
+        return body;
+    }
+
+    private static Map<String, Object> playerBody(GameState.GamePlayerState player) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("gamePlayerId", player.getGamePlayerId());
+        body.put("slackUserId", player.getSlackUserId());
+        body.put("displayName", player.getDisplayName());
+        body.put("team", player.getTeam().name());
+        body.put("position", player.getPosition().name());
+        body.put("goals", player.getGoals());
+        return body;
+    }
+
+    /**
+     * One SSE connection. Events wait in a bounded buffer until the connection
+     * requests them; signals to the subscriber are serialized by a drain loop,
+     * so publishers on different channel threads never call it concurrently.
+     */
+    private final class Client implements Subscription {
+
+        private final String channelId;
+        private final Subscriber<? super Event<String>> subscriber;
+        private final ArrayBlockingQueue<Event<String>> buffer;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile boolean overflowed;
+        private volatile Throwable failure;
+
+        Client(String channelId, Subscriber<? super Event<String>> subscriber) {
+            this.channelId = channelId;
+            this.subscriber = subscriber;
+            this.buffer = new ArrayBlockingQueue<>(config.getBufferSize());
+        }
+
+        void fail(Throwable error) {
+            failure = error;
+            drain();
+        }
+
+        void offer(Event<String> event) {
+            if (closed.get()) return;
+            if (!buffer.offer(event)) {
+                overflowed = true;
+            }
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                failure = new IllegalArgumentException("Requested " + n + " events; demand must be positive");
+            } else {
+                demand.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            close();
+            buffer.clear();
+        }
+
+        private boolean close() {
+            if (!closed.compareAndSet(false, true)) return false;
+            unsubscribe(this);
+            return true;
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) return;
+            int missed = 1;
+            do {
+                if (failure != null) {
+                    buffer.clear();
+                    if (close()) subscriber.onError(failure);
+                } else if (overflowed) {
+                    buffer.clear();
+                    if (close()) {
+                        dropped.increment();
+                        LOG.info("Dropped slow live subscriber on channel {}", channelId);
+                        subscriber.onComplete();
+                    }
+                } else if (closed.get()) {
+                    buffer.clear();
+                } else {
+                    Event<String> event;
+                    while (demand.get() > 0 && (event = buffer.poll()) != null) {
+                        demand.decrementAndGet();
+                        subscriber.onNext(event);
+                    }
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
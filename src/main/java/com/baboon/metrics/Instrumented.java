@@ -0,0 +1,31 @@
+package com.baboon.metrics;
+
+import io.micronaut.aop.Around;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Times every public method of the annotated bean (or just the annotated
+ * method) into a timer with the given name, tagged by class, method and
+ * outcome. Calls a bean makes on itself are not intercepted.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Around
+public @interface Instrumented {
+
+    /**
+     * Timer name.
+     */
+    String value();
+
+    /**
+     * Latency limits in milliseconds to count calls against, e.g. Slack's 3s ack deadline.
+     */
+    long[] slo() default {};
+}
@@ -0,0 +1,63 @@
+package com.baboon.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micronaut.aop.InterceptorBean;
+import io.micronaut.aop.MethodInterceptor;
+import io.micronaut.aop.MethodInvocationContext;
+import io.micronaut.inject.ExecutableMethod;
+import jakarta.inject.Singleton;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records {@link Instrumented} calls. Timers are resolved once per method and
+ * outcome, so the hot path is a map lookup and a clock read.
+ */
+@Singleton
+@InterceptorBean(Instrumented.class)
+public class InstrumentedInterceptor implements MethodInterceptor<Object, Object> {
+
+    private record Timers(Timer success, Timer error) {}
+
+    private final MeterRegistry registry;
+    private final ConcurrentHashMap<ExecutableMethod<?, ?>, Timers> timers = new ConcurrentHashMap<>();
+
+    public InstrumentedInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Object intercept(MethodInvocationContext<Object, Object> context) {
+        Timers methodTimers = timers.computeIfAbsent(context.getExecutableMethod(), m -> register(context));
+        long start = System.nanoTime();
+        try {
+            Object result = context.proceed();
+            methodTimers.success().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            // Errors and undeclared checked exceptions count as failures too; rethrown as is
+            methodTimers.error().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private Timers register(MethodInvocationContext<Object, Object> context) {
+        return new Timers(timer(context, "success"), timer(context, "error"));
+    }
+
+    private Timer timer(MethodInvocationContext<Object, Object> context, String outcome) {
+        String name = context.stringValue(Instrumented.class).orElseThrow();
+        long[] slo = context.getValue(Instrumented.class, "slo", long[].class).orElse(new long[0]);
+        return Timer.builder(name)
+                .tag("class", context.getDeclaringType().getSimpleName())
+                .tag("method", context.getMethodName())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .serviceLevelObjectives(Arrays.stream(slo).mapToObj(Duration::ofMillis).toArray(Duration[]::new))
+                .register(registry);
+    }
+}
@@ -0,0 +1,30 @@
+package com.baboon.metrics;
+
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Get;
+
+/**
+ * Prometheus scrape endpoint. Only registered when baboon.metrics.enabled is
+ * set; the server binds to localhost by default, so expose the port
+ * deliberately if the scraper runs elsewhere.
+ */
+@Controller("/metrics")
+@Requires(property = "baboon.metrics.enabled", value = StringUtils.TRUE)
+public class MetricsController {
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final PrometheusMeterRegistry registry;
+
+    public MetricsController(PrometheusMeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Get(produces = CONTENT_TYPE)
+    public String scrape() {
+        return registry.scrape();
+    }
+}
@@ -0,0 +1,19 @@
+package com.baboon.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A completed game with its final score and players, as loaded for replays.
+ * The start time falls back to the creation time for games that never recorded one;
+ * its date is the day the game counts towards in windowed stats.
+ */
+public record GameResult(long gameId, LocalDateTime startTime, LocalDateTime endTime, int blueScore, int redScore,
+                         List<GamePlayer> players) {
+
+    public Team winner() {
+        if (blueScore > redScore) return Team.BLUE;
+        if (redScore > blueScore) return Team.RED;
+        return null;
+    }
+}
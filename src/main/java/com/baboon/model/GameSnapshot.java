@@ -0,0 +1,31 @@
+package com.baboon.model;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Immutable copy of a {@link GameState} for rendering.
+ */
+public record GameSnapshot(long gameId, String channelId, int table, Instant startTime,
+                           int blueScore, int redScore,
+                           List<PlayerSnapshot> bluePlayers, List<PlayerSnapshot> redPlayers) {
+
+    public record PlayerSnapshot(long gamePlayerId, String slackUserId, String displayName,
+                                 Team team, Position position, int goals) {}
+
+    public Team leadingTeam() {
+        if (blueScore > redScore) return Team.BLUE;
+        if (redScore > blueScore) return Team.RED;
+        return null;
+    }
+
+    public int score(Team team) {
+        return team == Team.BLUE ? blueScore : redScore;
+    }
+
+    public List<PlayerSnapshot> team(Team team) {
+        if (team == Team.BLUE) return bluePlayers;
+        if (team == Team.RED) return redPlayers;
+        return List.of();
+    }
+}
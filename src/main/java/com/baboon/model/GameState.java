@@ -1,27 +1,56 @@
 package com.baboon.model;
 
 import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
+/**
+ * Live state of a game. Team scores are counters updated by {@link #addGoal},
+ * and players are indexed by game player id and Slack user id when added, so
+ * per-click lookups and score reads do not allocate. Views render from an
+ * immutable {@link #snapshot()}.
+ */
 public class GameState {
 
     private final long gameId;
     private final String channelId;
+    // 1-based table number, or 0 when the channel has a single table
+    private int table;
     private String messageTs;
     private final Instant startTime;
     private int blueWins;
     private int redWins;
     private final List<GamePlayerState> players = new ArrayList<>();
+    private final List<GamePlayerState> playersView = Collections.unmodifiableList(players);
+    private List<GamePlayerState> bluePlayers = List.of();
+    private List<GamePlayerState> redPlayers = List.of();
+    // Sorted game player ids with the player at the same index, for binary search lookups
+    private long[] gamePlayerIds = new long[0];
+    private GamePlayerState[] playersById = new GamePlayerState[0];
+    private final Set<String> participants = new HashSet<>();
+    private int blueScore;
+    private int redScore;
 
     public GameState(long gameId, String channelId) {
+        this(gameId, channelId, Instant.now());
+    }
+
+    public GameState(long gameId, String channelId, Instant startTime) {
         this.gameId = gameId;
         this.channelId = channelId;
-        this.startTime = Instant.now();
+        this.startTime = startTime;
     }
 
     public long getGameId() { return gameId; }
     public String getChannelId() { return channelId; }
+    public int getTable() { return table; }
+    public void setTable(int table) { this.table = table; }
     public String getMessageTs() { return messageTs; }
     public void setMessageTs(String messageTs) { this.messageTs = messageTs; }
     public Instant getStartTime() { return startTime; }
@@ -29,57 +58,117 @@ public class GameState {
     public void setBlueWins(int blueWins) { this.blueWins = blueWins; }
     public int getRedWins() { return redWins; }
     public void setRedWins(int redWins) { this.redWins = redWins; }
-    public List<GamePlayerState> getPlayers() { return players; }
+    public List<GamePlayerState> getPlayers() { return playersView; }
+    public int getBlueScore() { return blueScore; }
+    public int getRedScore() { return redScore; }
+
+    public void addPlayer(GamePlayerState player) {
+        players.add(player);
+        participants.add(player.getSlackUserId());
+        if (player.getTeam() == Team.BLUE) {
+            blueScore += player.getGoals();
+        } else {
+            redScore += player.getGoals();
+        }
 
-    public int getBlueScore() {
-        return players.stream().filter(p -> p.getTeam() == Team.BLUE).mapToInt(GamePlayerState::getGoals).sum();
+        List<GamePlayerState> sorted = new ArrayList<>(players);
+        sorted.sort((a, b) -> Long.compare(a.getGamePlayerId(), b.getGamePlayerId()));
+        gamePlayerIds = sorted.stream().mapToLong(GamePlayerState::getGamePlayerId).toArray();
+        playersById = sorted.toArray(new GamePlayerState[0]);
+        bluePlayers = players.stream().filter(p -> p.getTeam() == Team.BLUE).toList();
+        redPlayers = players.stream().filter(p -> p.getTeam() == Team.RED).toList();
     }
 
-    public int getRedScore() {
-        return players.stream().filter(p -> p.getTeam() == Team.RED).mapToInt(GamePlayerState::getGoals).sum();
+    /**
+     * Credits a goal to the player and their team; returns false for an unknown player.
+     */
+    public boolean addGoal(long gamePlayerId) {
+        GamePlayerState player = getPlayerByGamePlayerId(gamePlayerId);
+        if (player == null) return false;
+        player.addGoal();
+        if (player.getTeam() == Team.BLUE) {
+            blueScore++;
+        } else {
+            redScore++;
+        }
+        return true;
     }
 
     public boolean isGameWinnable() {
-        int blue = getBlueScore();
-        int red = getRedScore();
-        int max = Math.max(blue, red);
-        int diff = Math.abs(blue - red);
+        int max = Math.max(blueScore, redScore);
+        int diff = Math.abs(blueScore - redScore);
         return max >= 11 && diff >= 2;
     }
 
     public Team getLeadingTeam() {
-        int blue = getBlueScore();
-        int red = getRedScore();
-        if (blue > red) return Team.BLUE;
-        if (red > blue) return Team.RED;
+        if (blueScore > redScore) return Team.BLUE;
+        if (redScore > blueScore) return Team.RED;
         return null;
     }
 
     public List<GamePlayerState> getTeam(Team team) {
-        return players.stream().filter(p -> p.getTeam() == team).toList();
+        if (team == Team.BLUE) return bluePlayers;
+        if (team == Team.RED) return redPlayers;
+        return List.of();
     }
 
     public GamePlayerState getPlayerByGamePlayerId(long gamePlayerId) {
-        return players.stream()
-                .filter(p -> p.getGamePlayerId() == gamePlayerId)
-                .findFirst().orElse(null);
+        int index = Arrays.binarySearch(gamePlayerIds, gamePlayerId);
+        return index >= 0 ? playersById[index] : null;
     }
 
     public boolean isParticipant(String userId) {
-        return players.stream().anyMatch(p -> p.getSlackUserId().equals(userId));
+        return participants.contains(userId);
+    }
+
+    public GameSnapshot snapshot() {
+        return new GameSnapshot(gameId, channelId, table, startTime, blueScore, redScore,
+                snapshot(bluePlayers), snapshot(redPlayers));
+    }
+
+    /**
+     * The game as a completed result, for rating and head-to-head updates.
+     */
+    public GameResult toResult(LocalDateTime endTime) {
+        List<GamePlayer> result = new ArrayList<>(players.size());
+        for (GamePlayerState p : players) {
+            GamePlayer gp = new GamePlayer();
+            gp.setId(p.getGamePlayerId());
+            gp.setGameId(gameId);
+            gp.setPlayerId(p.getPlayerId());
+            gp.setTeam(p.getTeam());
+            gp.setPosition(p.getPosition());
+            gp.setGoals(p.getGoals());
+            gp.setSlackUserId(p.getSlackUserId());
+            gp.setDisplayName(p.getDisplayName());
+            result.add(gp);
+        }
+        return new GameResult(gameId, LocalDateTime.ofInstant(startTime, ZoneId.systemDefault()), endTime,
+                blueScore, redScore, result);
+    }
+
+    private static List<GameSnapshot.PlayerSnapshot> snapshot(List<GamePlayerState> team) {
+        List<GameSnapshot.PlayerSnapshot> result = new ArrayList<>(team.size());
+        for (GamePlayerState p : team) {
+            result.add(new GameSnapshot.PlayerSnapshot(p.getGamePlayerId(), p.getSlackUserId(),
+                    p.getDisplayName(), p.getTeam(), p.getPosition(), p.getGoals()));
+        }
+        return Collections.unmodifiableList(result);
     }
 
     public static class GamePlayerState {
         private final long gamePlayerId;
+        private final long playerId;
         private final String slackUserId;
         private final String displayName;
         private final Team team;
         private final Position position;
         private int goals;
 
-        public GamePlayerState(long gamePlayerId, String slackUserId, String displayName,
+        public GamePlayerState(long gamePlayerId, long playerId, String slackUserId, String displayName,
                                Team team, Position position) {
             this.gamePlayerId = gamePlayerId;
+            this.playerId = playerId;
             this.slackUserId = slackUserId;
             this.displayName = displayName;
             this.team = team;
@@ -87,11 +176,13 @@ public class GameState {
         }
 
         public long getGamePlayerId() { return gamePlayerId; }
+        public long getPlayerId() { return playerId; }
         public String getSlackUserId() { return slackUserId; }
         public String getDisplayName() { return displayName; }
         public Team getTeam() { return team; }
         public Position getPosition() { return position; }
         public int getGoals() { return goals; }
-        public void addGoal() { this.goals++; }
+        // Only through GameState.addGoal, which keeps the team counters in step
+        private void addGoal() { this.goals++; }
     }
 }
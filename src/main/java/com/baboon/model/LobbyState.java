@@ -77,6 +77,24 @@ public class LobbyState {
     public void shuffleTeams() {
         if (players.size() < 2) return;
         Collections.shuffle(players);
+        assignSlots();
+    }
+
+    /**
+     * Reorders players so that order[k] takes slot k: blue goalie, blue forward,
+     * red goalie, red forward.
+     */
+    public void arrange(int[] order) {
+        List<LobbyPlayer> arranged = new ArrayList<>(players.size());
+        for (int index : order) {
+            arranged.add(players.get(index));
+        }
+        players.clear();
+        players.addAll(arranged);
+        assignSlots();
+    }
+
+    private void assignSlots() {
         for (int i = 0; i < players.size(); i++) {
             LobbyPlayer p = players.get(i);
             p.setTeam(i < 2 ? Team.BLUE : Team.RED);
@@ -0,0 +1,3 @@
+package com.baboon.model;
+
+public record PlayerRating(long playerId, String displayName, double rating, int games) {}
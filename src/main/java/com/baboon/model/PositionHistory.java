@@ -0,0 +1,14 @@
+package com.baboon.model;
+
+/**
+ * How often a player has played each position, over all completed games.
+ */
+public record PositionHistory(long playerId, int games, int goalieGames) {
+
+    /**
+     * Share of games played in goal, or one half for players with no games.
+     */
+    public double goalieShare() {
+        return games == 0 ? 0.5 : (double) goalieGames / games;
+    }
+}
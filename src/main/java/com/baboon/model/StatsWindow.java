@@ -0,0 +1,32 @@
+package com.baboon.model;
+
+import java.time.LocalDate;
+
+/**
+ * An inclusive range of game days for stats; both ends null means all time.
+ */
+public record StatsWindow(LocalDate from, LocalDate to) {
+
+    public static StatsWindow allTime() {
+        return new StatsWindow(null, null);
+    }
+
+    /**
+     * Today and the six days before it.
+     */
+    public static StatsWindow weekly(LocalDate today) {
+        return new StatsWindow(today.minusDays(6), today);
+    }
+
+    public static StatsWindow month(LocalDate today) {
+        return new StatsWindow(today.withDayOfMonth(1), today);
+    }
+
+    public static StatsWindow range(LocalDate from, LocalDate to) {
+        return new StatsWindow(from, to);
+    }
+
+    public boolean isAllTime() {
+        return from == null && to == null;
+    }
+}
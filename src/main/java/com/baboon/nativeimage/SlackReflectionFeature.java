@@ -0,0 +1,71 @@
+package com.baboon.nativeimage;
+
+import org.graalvm.nativeimage.hosted.Feature;
+import org.graalvm.nativeimage.hosted.RuntimeReflection;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Registers the Slack SDK classes that Gson and Tyrus reach reflectively.
+ * These are the API models, Web API responses, event and interaction
+ * payloads, JSON adapters and the Socket Mode endpoint. There are thousands of
+ * them and they change with every SDK release, so they are found by package
+ * on the image classpath at build time instead of being listed by hand in
+ * reflect-config.json.
+ */
+public class SlackReflectionFeature implements Feature {
+
+    // Gson binds fields and calls no-arg constructors
+    private static final List<String> BOUND_PACKAGES = List.of(
+            "com/slack/api/model/",
+            "com/slack/api/methods/response/",
+            "com/slack/api/app_backend/",
+            "com/slack/api/bolt/request/builtin/",
+            "com/slack/api/util/json/");
+
+    // Tyrus also looks up annotated endpoint methods
+    private static final List<String> ENDPOINT_PACKAGES = List.of(
+            "com/slack/api/socket_mode/");
+
+    @Override
+    public void beforeAnalysis(BeforeAnalysisAccess access) {
+        for (Path entry : access.getApplicationClassPath()) {
+            if (!entry.toString().endsWith(".jar") || !Files.isRegularFile(entry)) continue;
+            try (ZipFile jar = new ZipFile(entry.toFile())) {
+                jar.stream()
+                        .map(ZipEntry::getName)
+                        .filter(name -> name.endsWith(".class") && !name.endsWith("module-info.class"))
+                        .forEach(name -> register(access, name));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to scan " + entry, e);
+            }
+        }
+    }
+
+    private static void register(BeforeAnalysisAccess access, String entryName) {
+        boolean bound = BOUND_PACKAGES.stream().anyMatch(entryName::startsWith);
+        boolean endpoint = ENDPOINT_PACKAGES.stream().anyMatch(entryName::startsWith);
+        if (!bound && !endpoint) return;
+
+        String className = entryName.substring(0, entryName.length() - ".class".length()).replace('/', '.');
+        Class<?> type = access.findClassByName(className);
+        if (type == null) return;
+
+        try {
+            RuntimeReflection.register(type);
+            RuntimeReflection.register(type.getDeclaredConstructors());
+            RuntimeReflection.register(type.getDeclaredFields());
+            if (endpoint) {
+                RuntimeReflection.register(type.getDeclaredMethods());
+            }
+        } catch (LinkageError e) {
+            // Refers to an optional dependency that is not on the classpath, so it is never used
+        }
+    }
+}
@@ -1,22 +1,28 @@
 package com.baboon.repository;
 
+import com.baboon.metrics.Instrumented;
 import com.baboon.model.GamePlayer;
 import com.baboon.model.Position;
 import com.baboon.model.Team;
+import jakarta.inject.Named;
 import jakarta.inject.Singleton;
 
 import javax.sql.DataSource;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Singleton
+@Instrumented("baboon.db")
 public class GamePlayerRepository {
 
     private final DataSource dataSource;
+    private final DataSource readDataSource;
 
-    public GamePlayerRepository(DataSource dataSource) {
+    public GamePlayerRepository(DataSource dataSource, @Named("read") DataSource readDataSource) {
         this.dataSource = dataSource;
+        this.readDataSource = readDataSource;
     }
 
     public void create(long gameId, long playerId, Team team, Position position) {
@@ -35,7 +41,7 @@ public class GamePlayerRepository {
 
     public List<GamePlayer> findByGameId(long gameId) {
         List<GamePlayer> players = new ArrayList<>();
-        try (Connection conn = dataSource.getConnection();
+        try (Connection conn = readDataSource.getConnection();
              PreparedStatement ps = conn.prepareStatement(
                      "SELECT gp.*, p.display_name, p.slack_user_id " +
                      "FROM game_players gp JOIN players p ON gp.player_id = p.id " +
@@ -63,8 +69,34 @@ public class GamePlayerRepository {
         }
     }
 
+    /**
+     * Applies goal increments for several game players in one transaction.
+     */
+    public void addGoals(Map<Long, Integer> goalsByGamePlayerId) {
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "UPDATE game_players SET goals = goals + ? WHERE id = ?")) {
+                for (Map.Entry<Long, Integer> entry : goalsByGamePlayerId.entrySet()) {
+                    ps.setInt(1, entry.getValue());
+                    ps.setLong(2, entry.getKey());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to add goals", e);
+        }
+    }
+
     public GamePlayer findById(long id) {
-        try (Connection conn = dataSource.getConnection();
+        try (Connection conn = readDataSource.getConnection();
              PreparedStatement ps = conn.prepareStatement(
                      "SELECT gp.*, p.display_name, p.slack_user_id " +
                      "FROM game_players gp JOIN players p ON gp.player_id = p.id " +
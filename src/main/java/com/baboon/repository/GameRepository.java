@@ -1,24 +1,35 @@
 package com.baboon.repository;
 
+import com.baboon.metrics.Instrumented;
 import com.baboon.model.Game;
+import com.baboon.model.GamePlayer;
+import com.baboon.model.GameResult;
 import com.baboon.model.GameStatus;
+import com.baboon.model.Position;
+import com.baboon.model.Team;
+import jakarta.inject.Named;
 import jakarta.inject.Singleton;
 
 import javax.sql.DataSource;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 @Singleton
+@Instrumented("baboon.db")
 public class GameRepository {
 
     private static final DateTimeFormatter FMT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     private final DataSource dataSource;
+    private final DataSource readDataSource;
 
-    public GameRepository(DataSource dataSource) {
+    public GameRepository(DataSource dataSource, @Named("read") DataSource readDataSource) {
         this.dataSource = dataSource;
+        this.readDataSource = readDataSource;
     }
 
     public Game create(String channelId) {
@@ -42,8 +53,61 @@ public class GameRepository {
         }
     }
 
+    /**
+     * Inserts an in-progress game with its start time and all of its players in
+     * one transaction. Each GamePlayer gets its generated id and game id set.
+     */
+    public Game start(String channelId, LocalDateTime startTime, List<GamePlayer> players) {
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement gamePs = conn.prepareStatement(
+                         "INSERT INTO games (channel_id, status, start_time) VALUES (?, ?, ?)",
+                         Statement.RETURN_GENERATED_KEYS);
+                 PreparedStatement playerPs = conn.prepareStatement(
+                         "INSERT INTO game_players (game_id, player_id, team, position, goals) VALUES (?, ?, ?, ?, 0)",
+                         Statement.RETURN_GENERATED_KEYS)) {
+                gamePs.setString(1, channelId);
+                gamePs.setString(2, GameStatus.IN_PROGRESS.name());
+                gamePs.setString(3, startTime.format(FMT));
+                gamePs.executeUpdate();
+
+                Game game = new Game();
+                try (ResultSet keys = gamePs.getGeneratedKeys()) {
+                    keys.next();
+                    game.setId(keys.getLong(1));
+                }
+                game.setChannelId(channelId);
+                game.setStatus(GameStatus.IN_PROGRESS);
+                game.setStartTime(startTime);
+
+                for (GamePlayer gp : players) {
+                    playerPs.setLong(1, game.getId());
+                    playerPs.setLong(2, gp.getPlayerId());
+                    playerPs.setString(3, gp.getTeam().name());
+                    playerPs.setString(4, gp.getPosition().name());
+                    playerPs.executeUpdate();
+                    try (ResultSet keys = playerPs.getGeneratedKeys()) {
+                        keys.next();
+                        gp.setId(keys.getLong(1));
+                    }
+                    gp.setGameId(game.getId());
+                }
+
+                conn.commit();
+                return game;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to start game", e);
+        }
+    }
+
     public Optional<Game> findById(long id) {
-        try (Connection conn = dataSource.getConnection();
+        try (Connection conn = readDataSource.getConnection();
              PreparedStatement ps = conn.prepareStatement(
                      "SELECT * FROM games WHERE id = ?")) {
             ps.setLong(1, id);
@@ -92,6 +156,176 @@ public class GameRepository {
         }
     }
 
+    /**
+     * Marks a game completed with its final score and folds its players into
+     * player_stats and player_daily_stats, all in one transaction.
+     */
+    public void complete(long gameId, LocalDateTime endTime, int blueScore, int redScore) {
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement game = conn.prepareStatement(
+                         "UPDATE games SET status = ?, end_time = ?, blue_score = ?, red_score = ? WHERE id = ?");
+                 PreparedStatement stats = conn.prepareStatement("""
+                         INSERT INTO player_stats (player_id, position, games, wins, goals, goals_against)
+                         SELECT gp.player_id, gp.position, 1,
+                                CASE WHEN (gp.team = 'BLUE' AND g.blue_score > g.red_score)
+                                       OR (gp.team = 'RED' AND g.red_score > g.blue_score) THEN 1 ELSE 0 END,
+                                gp.goals,
+                                CASE WHEN gp.team = 'BLUE' THEN g.red_score ELSE g.blue_score END
+                         FROM game_players gp
+                         JOIN games g ON gp.game_id = g.id
+                         WHERE gp.game_id = ?
+                         ON CONFLICT (player_id, position) DO UPDATE SET
+                             games = games + excluded.games,
+                             wins = wins + excluded.wins,
+                             goals = goals + excluded.goals,
+                             goals_against = goals_against + excluded.goals_against
+                         """);
+                 PreparedStatement daily = conn.prepareStatement("""
+                         INSERT INTO player_daily_stats (day, player_id, position, games, wins, goals, goals_against)
+                         SELECT date(COALESCE(g.start_time, g.created_at)), gp.player_id, gp.position, 1,
+                                CASE WHEN (gp.team = 'BLUE' AND g.blue_score > g.red_score)
+                                       OR (gp.team = 'RED' AND g.red_score > g.blue_score) THEN 1 ELSE 0 END,
+                                gp.goals,
+                                CASE WHEN gp.team = 'BLUE' THEN g.red_score ELSE g.blue_score END
+                         FROM game_players gp
+                         JOIN games g ON gp.game_id = g.id
+                         WHERE gp.game_id = ?
+                         ON CONFLICT (day, player_id, position) DO UPDATE SET
+                             games = games + excluded.games,
+                             wins = wins + excluded.wins,
+                             goals = goals + excluded.goals,
+                             goals_against = goals_against + excluded.goals_against
+                         """)) {
+                game.setString(1, GameStatus.COMPLETED.name());
+                game.setString(2, endTime.format(FMT));
+                game.setInt(3, blueScore);
+                game.setInt(4, redScore);
+                game.setLong(5, gameId);
+                game.executeUpdate();
+
+                stats.setLong(1, gameId);
+                stats.executeUpdate();
+
+                daily.setLong(1, gameId);
+                daily.executeUpdate();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to complete game", e);
+        }
+    }
+
+    public long getMaxCompletedGameId() {
+        try (Connection conn = readDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "SELECT COALESCE(MAX(id), 0) FROM games WHERE status = 'COMPLETED'");
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to find max game id", e);
+        }
+    }
+
+    /**
+     * Loads completed games with ids in [fromId, toId) and their players, in id order.
+     * Ranges are independent, so callers can load history in parallel on the read pool.
+     */
+    public List<GameResult> findCompletedResults(long fromId, long toId) {
+        try (Connection conn = readDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement("""
+                     SELECT g.id, COALESCE(g.start_time, g.created_at) AS started_at, g.end_time,
+                            g.blue_score, g.red_score,
+                            gp.id AS game_player_id, gp.player_id, gp.team, gp.position, gp.goals,
+                            p.slack_user_id, p.display_name
+                     FROM games g
+                     JOIN game_players gp ON gp.game_id = g.id
+                     JOIN players p ON gp.player_id = p.id
+                     WHERE g.status = 'COMPLETED' AND g.id >= ? AND g.id < ?
+                     ORDER BY g.id, gp.id
+                     """)) {
+            ps.setLong(1, fromId);
+            ps.setLong(2, toId);
+            return readResults(ps);
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to load game results", e);
+        }
+    }
+
+    /**
+     * Loads the most recently completed games and their players, newest first.
+     */
+    public List<GameResult> findRecentResults(int limit) {
+        try (Connection conn = readDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement("""
+                     SELECT g.id, COALESCE(g.start_time, g.created_at) AS started_at, g.end_time,
+                            g.blue_score, g.red_score,
+                            gp.id AS game_player_id, gp.player_id, gp.team, gp.position, gp.goals,
+                            p.slack_user_id, p.display_name
+                     FROM games g
+                     JOIN game_players gp ON gp.game_id = g.id
+                     JOIN players p ON gp.player_id = p.id
+                     WHERE g.id IN (SELECT id FROM games WHERE status = 'COMPLETED' ORDER BY id DESC LIMIT ?)
+                     ORDER BY g.id DESC, gp.id
+                     """)) {
+            ps.setInt(1, limit);
+            return readResults(ps);
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to load recent game results", e);
+        }
+    }
+
+    /**
+     * Folds game/player join rows, grouped by game, into one result per game.
+     */
+    private List<GameResult> readResults(PreparedStatement ps) throws SQLException {
+        List<GameResult> results = new ArrayList<>();
+        try (ResultSet rs = ps.executeQuery()) {
+            long currentId = -1;
+            LocalDateTime startTime = null;
+            LocalDateTime endTime = null;
+            int blueScore = 0;
+            int redScore = 0;
+            List<GamePlayer> players = null;
+            while (rs.next()) {
+                long gameId = rs.getLong("id");
+                if (gameId != currentId) {
+                    if (players != null) {
+                        results.add(new GameResult(currentId, startTime, endTime, blueScore, redScore, players));
+                    }
+                    currentId = gameId;
+                    String start = rs.getString("started_at");
+                    startTime = start != null ? LocalDateTime.parse(start, FMT) : null;
+                    String end = rs.getString("end_time");
+                    endTime = end != null ? LocalDateTime.parse(end, FMT) : null;
+                    blueScore = rs.getInt("blue_score");
+                    redScore = rs.getInt("red_score");
+                    players = new ArrayList<>(4);
+                }
+                GamePlayer gp = new GamePlayer();
+                gp.setId(rs.getLong("game_player_id"));
+                gp.setGameId(gameId);
+                gp.setPlayerId(rs.getLong("player_id"));
+                gp.setTeam(Team.valueOf(rs.getString("team")));
+                gp.setPosition(Position.valueOf(rs.getString("position")));
+                gp.setGoals(rs.getInt("goals"));
+                gp.setSlackUserId(rs.getString("slack_user_id"));
+                gp.setDisplayName(rs.getString("display_name"));
+                players.add(gp);
+            }
+            if (players != null) {
+                results.add(new GameResult(currentId, startTime, endTime, blueScore, redScore, players));
+            }
+        }
+        return results;
+    }
+
     private Game mapRow(ResultSet rs) throws SQLException {
         Game game = new Game();
         game.setId(rs.getLong("id"));
@@ -1,19 +1,29 @@
 package com.baboon.repository;
 
+import com.baboon.metrics.Instrumented;
 import com.baboon.model.Player;
+import jakarta.inject.Named;
 import jakarta.inject.Singleton;
 
 import javax.sql.DataSource;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Singleton
+@Instrumented("baboon.db")
 public class PlayerRepository {
 
     private final DataSource dataSource;
+    private final DataSource readDataSource;
 
-    public PlayerRepository(DataSource dataSource) {
+    public PlayerRepository(DataSource dataSource, @Named("read") DataSource readDataSource) {
         this.dataSource = dataSource;
+        this.readDataSource = readDataSource;
     }
 
     public Player findOrCreate(String slackUserId, String displayName) {
@@ -37,8 +47,37 @@ public class PlayerRepository {
         });
     }
 
-    public Optional<Player> findBySlackUserId(String slackUserId) {
+    /**
+     * Resolves several players in one statement, creating any that do not exist yet.
+     */
+    public Map<String, Player> findOrCreateAll(Map<String, String> displayNamesBySlackUserId) {
+        // The no-op update makes RETURNING report existing rows as well as new ones
+        String sql = "INSERT INTO players (slack_user_id, display_name) VALUES "
+                + String.join(", ", Collections.nCopies(displayNamesBySlackUserId.size(), "(?, ?)"))
+                + " ON CONFLICT (slack_user_id) DO UPDATE SET display_name = display_name"
+                + " RETURNING id, slack_user_id, display_name";
+        Map<String, Player> players = new LinkedHashMap<>();
         try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            int i = 1;
+            for (Map.Entry<String, String> entry : displayNamesBySlackUserId.entrySet()) {
+                ps.setString(i++, entry.getKey());
+                ps.setString(i++, entry.getValue());
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Player player = mapRow(rs);
+                    players.put(player.getSlackUserId(), player);
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to find or create players", e);
+        }
+        return players;
+    }
+
+    public Optional<Player> findBySlackUserId(String slackUserId) {
+        try (Connection conn = readDataSource.getConnection();
              PreparedStatement ps = conn.prepareStatement(
                      "SELECT id, slack_user_id, display_name FROM players WHERE slack_user_id = ?")) {
             ps.setString(1, slackUserId);
@@ -65,6 +104,47 @@ public class PlayerRepository {
         }
     }
 
+    public List<Player> findAll() {
+        List<Player> players = new ArrayList<>();
+        try (Connection conn = readDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "SELECT id, slack_user_id, display_name FROM players");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                players.add(mapRow(rs));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to list players", e);
+        }
+        return players;
+    }
+
+    /**
+     * Renames several players in one transaction, keyed by Slack user id.
+     */
+    public void updateDisplayNames(Map<String, String> displayNamesBySlackUserId) {
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "UPDATE players SET display_name = ? WHERE slack_user_id = ?")) {
+                for (Map.Entry<String, String> entry : displayNamesBySlackUserId.entrySet()) {
+                    ps.setString(1, entry.getValue());
+                    ps.setString(2, entry.getKey());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to update players", e);
+        }
+    }
+
     private Player mapRow(ResultSet rs) throws SQLException {
         return new Player(
                 rs.getLong("id"),
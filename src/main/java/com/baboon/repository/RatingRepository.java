@@ -0,0 +1,101 @@
+package com.baboon.repository;
+
+import com.baboon.metrics.Instrumented;
+import com.baboon.model.PlayerRating;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@Singleton
+@Instrumented("baboon.db")
+public class RatingRepository {
+
+    private static final String UPSERT = """
+            INSERT INTO player_ratings (player_id, rating, games) VALUES (?, ?, ?)
+            ON CONFLICT (player_id) DO UPDATE SET rating = excluded.rating, games = excluded.games
+            """;
+
+    private final DataSource dataSource;
+    private final DataSource readDataSource;
+
+    public RatingRepository(DataSource dataSource, @Named("read") DataSource readDataSource) {
+        this.dataSource = dataSource;
+        this.readDataSource = readDataSource;
+    }
+
+    public List<PlayerRating> findAll() {
+        List<PlayerRating> ratings = new ArrayList<>();
+        try (Connection conn = readDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement("""
+                     SELECT r.player_id, p.display_name, r.rating, r.games
+                     FROM player_ratings r
+                     JOIN players p ON r.player_id = p.id
+                     """);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                ratings.add(new PlayerRating(rs.getLong("player_id"), rs.getString("display_name"),
+                        rs.getDouble("rating"), rs.getInt("games")));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to find ratings", e);
+        }
+        return ratings;
+    }
+
+    /**
+     * Upserts the given ratings in one transaction.
+     */
+    public void saveAll(Collection<PlayerRating> ratings) {
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(UPSERT)) {
+                addBatch(ps, ratings);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to save ratings", e);
+        }
+    }
+
+    /**
+     * Replaces every stored rating with the given ones in one transaction.
+     */
+    public void replaceAll(Collection<PlayerRating> ratings) {
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
+            try (Statement delete = conn.createStatement();
+                 PreparedStatement ps = conn.prepareStatement(UPSERT)) {
+                delete.executeUpdate("DELETE FROM player_ratings");
+                addBatch(ps, ratings);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to replace ratings", e);
+        }
+    }
+
+    private void addBatch(PreparedStatement ps, Collection<PlayerRating> ratings) throws SQLException {
+        for (PlayerRating rating : ratings) {
+            ps.setLong(1, rating.playerId());
+            ps.setDouble(2, rating.rating());
+            ps.setInt(3, rating.games());
+            ps.addBatch();
+        }
+        ps.executeBatch();
+    }
+}
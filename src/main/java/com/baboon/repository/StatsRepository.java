@@ -1,5 +1,8 @@
 package com.baboon.repository;
 
+import com.baboon.metrics.Instrumented;
+import com.baboon.model.StatsWindow;
+import jakarta.inject.Named;
 import jakarta.inject.Singleton;
 
 import javax.sql.DataSource;
@@ -13,103 +16,75 @@ import java.util.List;
 import java.util.Map;
 
 @Singleton
+@Instrumented("baboon.db")
 public class StatsRepository {
 
     private final DataSource dataSource;
+    private final DataSource readDataSource;
 
-    public StatsRepository(DataSource dataSource) {
+    public StatsRepository(DataSource dataSource, @Named("read") DataSource readDataSource) {
         this.dataSource = dataSource;
+        this.readDataSource = readDataSource;
     }
 
     /**
      * Rankings: Games, Wins, Win%, Goals — sorted by win%
      */
-    public List<Map<String, Object>> getPlayerStats(boolean allTime) {
-        String timeFilter = allTime ? "" : "AND g.start_time >= datetime('now', '-7 days')";
-        String sql = String.format("""
+    public List<Map<String, Object>> getPlayerStats(StatsWindow window) {
+        return executeQuery(window, """
                 SELECT p.display_name,
-                       COUNT(DISTINCT gp.game_id) as games,
-                       SUM(CASE WHEN g.status = 'COMPLETED'
-                           AND ((gp.team = 'BLUE' AND
-                                 (SELECT SUM(gp2.goals) FROM game_players gp2 WHERE gp2.game_id = g.id AND gp2.team = 'BLUE')
-                                 > (SELECT SUM(gp3.goals) FROM game_players gp3 WHERE gp3.game_id = g.id AND gp3.team = 'RED'))
-                            OR (gp.team = 'RED' AND
-                                 (SELECT SUM(gp3.goals) FROM game_players gp3 WHERE gp3.game_id = g.id AND gp3.team = 'RED')
-                                 > (SELECT SUM(gp2.goals) FROM game_players gp2 WHERE gp2.game_id = g.id AND gp2.team = 'BLUE')))
-                           THEN 1 ELSE 0 END) as wins,
-                       ROUND(100.0 * SUM(CASE WHEN g.status = 'COMPLETED'
-                           AND ((gp.team = 'BLUE' AND
-                                 (SELECT SUM(gp2.goals) FROM game_players gp2 WHERE gp2.game_id = g.id AND gp2.team = 'BLUE')
-                                 > (SELECT SUM(gp3.goals) FROM game_players gp3 WHERE gp3.game_id = g.id AND gp3.team = 'RED'))
-                            OR (gp.team = 'RED' AND
-                                 (SELECT SUM(gp3.goals) FROM game_players gp3 WHERE gp3.game_id = g.id AND gp3.team = 'RED')
-                                 > (SELECT SUM(gp2.goals) FROM game_players gp2 WHERE gp2.game_id = g.id AND gp2.team = 'BLUE')))
-                           THEN 1 ELSE 0 END) / MAX(COUNT(DISTINCT gp.game_id), 1)) as win_pct,
-                       SUM(gp.goals) as goals
-                FROM game_players gp
-                JOIN games g ON gp.game_id = g.id
-                JOIN players p ON gp.player_id = p.id
-                WHERE g.status = 'COMPLETED'
-                  %s
+                       SUM(s.games) as games,
+                       SUM(s.wins) as wins,
+                       ROUND(100.0 * SUM(s.wins) / MAX(SUM(s.games), 1)) as win_pct,
+                       SUM(s.goals) as goals
+                FROM %s
+                JOIN players p ON s.player_id = p.id
+                WHERE %s
                 GROUP BY p.id
-                ORDER BY win_pct DESC, goals DESC
-                """, timeFilter);
-        return executeQuery(sql);
+                ORDER BY win_pct DESC, goals DESC, p.id
+                """);
     }
 
     /**
      * Top Scorers (forwards): Goals, Goals per game — sorted by goals per game
      */
-    public List<Map<String, Object>> getForwardStats(boolean allTime) {
-        String timeFilter = allTime ? "" : "AND g.start_time >= datetime('now', '-7 days')";
-        String sql = String.format("""
+    public List<Map<String, Object>> getForwardStats(StatsWindow window) {
+        return executeQuery(window, """
                 SELECT p.display_name,
-                       SUM(gp.goals) as goals,
-                       ROUND(CAST(SUM(gp.goals) AS REAL) / MAX(COUNT(DISTINCT gp.game_id), 1), 1) as per_game
-                FROM game_players gp
-                JOIN games g ON gp.game_id = g.id
-                JOIN players p ON gp.player_id = p.id
-                WHERE g.status = 'COMPLETED'
-                  AND gp.position = 'FORWARD'
-                  %s
+                       SUM(s.goals) as goals,
+                       ROUND(CAST(SUM(s.goals) AS REAL) / MAX(SUM(s.games), 1), 1) as per_game
+                FROM %s
+                JOIN players p ON s.player_id = p.id
+                WHERE %s
+                  AND s.position = 'FORWARD'
                 GROUP BY p.id
-                ORDER BY per_game DESC, goals DESC
-                """, timeFilter);
-        return executeQuery(sql);
+                ORDER BY per_game DESC, goals DESC, p.id
+                """);
     }
 
     /**
      * Goalies: Goals let in, Goals let in per game — sorted by per game ASC
      */
-    public List<Map<String, Object>> getGoalieStats(boolean allTime) {
-        String timeFilter = allTime ? "" : "AND g.start_time >= datetime('now', '-7 days')";
-        String sql = String.format("""
+    public List<Map<String, Object>> getGoalieStats(StatsWindow window) {
+        return executeQuery(window, """
                 SELECT p.display_name,
-                       SUM(CASE WHEN gp.team = 'BLUE' THEN
-                           (SELECT SUM(gp3.goals) FROM game_players gp3 WHERE gp3.game_id = g.id AND gp3.team = 'RED')
-                       ELSE
-                           (SELECT SUM(gp2.goals) FROM game_players gp2 WHERE gp2.game_id = g.id AND gp2.team = 'BLUE')
-                       END) as goals_let_in,
-                       ROUND(CAST(SUM(CASE WHEN gp.team = 'BLUE' THEN
-                           (SELECT SUM(gp3.goals) FROM game_players gp3 WHERE gp3.game_id = g.id AND gp3.team = 'RED')
-                       ELSE
-                           (SELECT SUM(gp2.goals) FROM game_players gp2 WHERE gp2.game_id = g.id AND gp2.team = 'BLUE')
-                       END) AS REAL) / MAX(COUNT(DISTINCT gp.game_id), 1), 1) as per_game
-                FROM game_players gp
-                JOIN games g ON gp.game_id = g.id
-                JOIN players p ON gp.player_id = p.id
-                WHERE g.status = 'COMPLETED'
-                  AND gp.position = 'GOALIE'
-                  %s
+                       SUM(s.goals_against) as goals_let_in,
+                       ROUND(CAST(SUM(s.goals_against) AS REAL) / MAX(SUM(s.games), 1), 1) as per_game
+                FROM %s
+                JOIN players p ON s.player_id = p.id
+                WHERE %s
+                  AND s.position = 'GOALIE'
                 GROUP BY p.id
-                ORDER BY per_game ASC
-                """, timeFilter);
-        return executeQuery(sql);
+                ORDER BY per_game ASC, p.id
+                """);
     }
 
     public void resetAll() {
         try (Connection conn = dataSource.getConnection();
              var s = conn.createStatement()) {
+            s.executeUpdate("DELETE FROM player_ratings");
+            s.executeUpdate("DELETE FROM player_stats");
+            s.executeUpdate("DELETE FROM player_daily_stats");
             s.executeUpdate("DELETE FROM game_players");
             s.executeUpdate("DELETE FROM game_sets");
             s.executeUpdate("DELETE FROM games");
@@ -119,19 +94,36 @@ public class StatsRepository {
         }
     }
 
-    private List<Map<String, Object>> executeQuery(String sql) {
+    /**
+     * Runs a stats query against the all-time aggregate, or against the daily
+     * rollups summed over the window's days.
+     */
+    private List<Map<String, Object>> executeQuery(StatsWindow window, String template) {
+        if (window.isAllTime()) {
+            return executeQuery(String.format(template, "player_stats s", "1 = 1"));
+        }
+        String from = window.from() != null ? window.from().toString() : "0000-01-01";
+        String to = window.to() != null ? window.to().toString() : "9999-12-31";
+        return executeQuery(String.format(template, "player_daily_stats s", "s.day BETWEEN ? AND ?"), from, to);
+    }
+
+    private List<Map<String, Object>> executeQuery(String sql, Object... params) {
         List<Map<String, Object>> results = new ArrayList<>();
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-            var meta = rs.getMetaData();
-            int cols = meta.getColumnCount();
-            while (rs.next()) {
-                Map<String, Object> row = new LinkedHashMap<>();
-                for (int i = 1; i <= cols; i++) {
-                    row.put(meta.getColumnName(i), rs.getObject(i));
+        try (Connection conn = readDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                ps.setObject(i + 1, params[i]);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                var meta = rs.getMetaData();
+                int cols = meta.getColumnCount();
+                while (rs.next()) {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    for (int i = 1; i <= cols; i++) {
+                        row.put(meta.getColumnName(i), rs.getObject(i));
+                    }
+                    results.add(row);
                 }
-                results.add(row);
             }
         } catch (SQLException e) {
             throw new RuntimeException("Failed to execute stats query", e);
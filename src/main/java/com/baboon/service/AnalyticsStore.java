@@ -0,0 +1,375 @@
+package com.baboon.service;
+
+import com.baboon.model.GamePlayer;
+import com.baboon.model.GameResult;
+import com.baboon.model.Position;
+import com.baboon.model.PositionHistory;
+import com.baboon.model.StatsWindow;
+import com.baboon.model.Team;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Completed games held in memory as primitive columns, one row per player per
+ * game: player index, position and outcome flags, goals, goals against and the
+ * stats day. Stats for any window come from a single scan that feeds rankings,
+ * scorers and goalies at once; large histories are scanned in parallel chunks.
+ * SQLite remains the durable store: the columns are loaded from it at startup
+ * and appended to as games complete.
+ *
+ * <p>Writers are serialized; readers never lock. Rows past the published size
+ * are invisible to readers and row arrays are copied before they grow, while
+ * the small per-player arrays (names and game counts) are copied before every
+ * change, so a reader's {@link Columns} stays consistent while games are
+ * appended and players renamed.
+ */
+@Singleton
+public class AnalyticsStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AnalyticsStore.class);
+
+    // Below this many rows a sequential scan beats splitting the work
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+    private static final int FORWARD = 0;
+    private static final int GOALIE = 1;
+    private static final byte GOALIE_FLAG = 1;
+    private static final byte WIN_FLAG = 2;
+
+    /**
+     * A published, read-only view of the columns and the player dictionary.
+     */
+    private record Columns(int size, int[] player, byte[] flags, short[] goals, short[] goalsAgainst, int[] day,
+                           int players, long[] playerIds, String[] names, int[] games, int[] goalieGames) {}
+
+    private final GameHistory history;
+    private final ConcurrentHashMap<String, Integer> indexBySlackUserId = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> indexByPlayerId = new HashMap<>();
+    private final Object lock = new Object();
+    private volatile Columns columns = empty();
+    private volatile boolean loaded;
+
+    public AnalyticsStore(GameHistory history) {
+        this.history = history;
+    }
+
+    /**
+     * Replaces the columns with every completed game in SQLite.
+     */
+    public void load() {
+        long started = System.nanoTime();
+        List<GameResult> games = history.startup();
+        synchronized (lock) {
+            clear();
+            // Nothing is published until the whole history is in, so the arrays are private to this load
+            Columns c = columns;
+            for (GameResult result : games) {
+                c = doAppend(c, result);
+            }
+            columns = c;
+            loaded = true;
+        }
+        LOG.info("Loaded {} games into {} analytics rows in {} ms",
+                games.size(), columns.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public void append(GameResult result) {
+        synchronized (lock) {
+            columns = doAppend(copyPlayers(columns), result);
+        }
+    }
+
+    /**
+     * Applies display name changes keyed by Slack user id.
+     */
+    public void rename(Map<String, String> displayNames) {
+        synchronized (lock) {
+            Columns next = copyPlayers(columns);
+            displayNames.forEach((slackUserId, name) -> {
+                Integer index = indexBySlackUserId.get(slackUserId);
+                if (index != null && index < next.players()) next.names()[index] = name;
+            });
+            columns = next;
+        }
+    }
+
+    public void reset() {
+        synchronized (lock) {
+            clear();
+        }
+    }
+
+    /**
+     * Rankings, top scorers and goalies for the window, ordered like the
+     * equivalent StatsRepository queries.
+     */
+    public Map<String, List<Map<String, Object>>> getStats(StatsWindow window) {
+        Columns c = columns;
+        int fromDay = window.from() != null ? (int) window.from().toEpochDay() : Integer.MIN_VALUE;
+        int toDay = window.to() != null ? (int) window.to().toEpochDay() : Integer.MAX_VALUE;
+        int[][] totals = scan(c, fromDay, toDay);
+
+        Map<String, List<Map<String, Object>>> stats = new LinkedHashMap<>();
+        stats.put("Rankings", rankings(c, totals));
+        stats.put("Top Scorers", forwards(c, totals));
+        stats.put("Goalies", goalies(c, totals));
+        return stats;
+    }
+
+    /**
+     * All-time position history keyed by Slack user id; players who never
+     * finished a game are absent.
+     */
+    public Map<String, PositionHistory> findPositionHistory(Collection<String> slackUserIds) {
+        Columns c = columns;
+        Map<String, PositionHistory> history = new HashMap<>();
+        for (String slackUserId : slackUserIds) {
+            Integer index = indexBySlackUserId.get(slackUserId);
+            if (index == null || index >= c.players()) continue;
+            history.put(slackUserId, new PositionHistory(
+                    c.playerIds()[index], c.games()[index], c.goalieGames()[index]));
+        }
+        return history;
+    }
+
+    /**
+     * Writes the game into c and returns the columns with the new counts. New
+     * rows and players sit past the counts readers were given; c's per-player
+     * arrays must not be shared with readers.
+     */
+    private Columns doAppend(Columns c, GameResult result) {
+        Team winner = result.winner();
+        int day = (int) result.startTime().toLocalDate().toEpochDay();
+        int size = c.size();
+        int players = c.players();
+        int needed = size + result.players().size();
+        if (needed > c.player().length) {
+            c = copyOf(c, Math.max(needed, Math.max(16, c.player().length * 2)), c.playerIds().length);
+        }
+
+        for (GamePlayer gp : result.players()) {
+            Integer index = indexByPlayerId.get(gp.getPlayerId());
+            if (index == null) {
+                if (players == c.playerIds().length) {
+                    c = copyOf(c, c.player().length, Math.max(16, players * 2));
+                }
+                index = players++;
+                c.playerIds()[index] = gp.getPlayerId();
+                indexByPlayerId.put(gp.getPlayerId(), index);
+            }
+            if (gp.getDisplayName() != null) c.names()[index] = gp.getDisplayName();
+            boolean goalie = gp.getPosition() == Position.GOALIE;
+
+            c.player()[size] = index;
+            c.flags()[size] = (byte) ((goalie ? GOALIE_FLAG : 0) | (gp.getTeam() == winner ? WIN_FLAG : 0));
+            c.goals()[size] = (short) gp.getGoals();
+            c.goalsAgainst()[size] = (short) (gp.getTeam() == Team.BLUE ? result.redScore() : result.blueScore());
+            c.day()[size] = day;
+            c.games()[index]++;
+            if (goalie) c.goalieGames()[index]++;
+            size++;
+
+            // Readers only look up players through the published count, so this can go in early
+            if (gp.getSlackUserId() != null) indexBySlackUserId.put(gp.getSlackUserId(), index);
+        }
+        return withCounts(c, size, players);
+    }
+
+    private void clear() {
+        indexByPlayerId.clear();
+        indexBySlackUserId.clear();
+        columns = empty();
+    }
+
+    /**
+     * Per player and position sums over rows in the day range: games, wins,
+     * goals and goals against, each indexed by player * 2 + position.
+     */
+    private static int[][] scan(Columns c, int fromDay, int toDay) {
+        int size = c.size();
+        if (size < PARALLEL_THRESHOLD) {
+            return scanRange(c, fromDay, toDay, 0, size);
+        }
+        int chunks = Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism() * 2, size / PARALLEL_THRESHOLD));
+        int chunkSize = (size + chunks - 1) / chunks;
+        return IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(i -> scanRange(c, fromDay, toDay, i * chunkSize, Math.min(size, (i + 1) * chunkSize)))
+                .reduce(AnalyticsStore::merge)
+                .orElseGet(() -> scanRange(c, fromDay, toDay, 0, 0));
+    }
+
+    private static int[][] scanRange(Columns c, int fromDay, int toDay, int from, int to) {
+        int cells = c.players() * 2;
+        int[] games = new int[cells];
+        int[] wins = new int[cells];
+        int[] goals = new int[cells];
+        int[] against = new int[cells];
+        int[] player = c.player();
+        byte[] flags = c.flags();
+        short[] rowGoals = c.goals();
+        short[] rowAgainst = c.goalsAgainst();
+        int[] day = c.day();
+        for (int row = from; row < to; row++) {
+            int d = day[row];
+            if (d < fromDay || d > toDay) continue;
+            int f = flags[row];
+            int cell = player[row] * 2 + (f & GOALIE_FLAG);
+            games[cell]++;
+            wins[cell] += (f & WIN_FLAG) >> 1;
+            goals[cell] += rowGoals[row];
+            against[cell] += rowAgainst[row];
+        }
+        return new int[][]{games, wins, goals, against};
+    }
+
+    private static int[][] merge(int[][] a, int[][] b) {
+        for (int column = 0; column < a.length; column++) {
+            for (int cell = 0; cell < a[column].length; cell++) {
+                a[column][cell] += b[column][cell];
+            }
+        }
+        return a;
+    }
+
+    private static List<Map<String, Object>> rankings(Columns c, int[][] totals) {
+        int[] games = totals[0];
+        int[] wins = totals[1];
+        int[] goals = totals[2];
+        List<Integer> players = new ArrayList<>();
+        for (int p = 0; p < c.players(); p++) {
+            if (games[p * 2 + FORWARD] + games[p * 2 + GOALIE] > 0) players.add(p);
+        }
+        double[] winPct = new double[c.players()];
+        int[] totalGoals = new int[c.players()];
+        for (int p : players) {
+            int g = games[p * 2 + FORWARD] + games[p * 2 + GOALIE];
+            int w = wins[p * 2 + FORWARD] + wins[p * 2 + GOALIE];
+            winPct[p] = Math.round(100.0 * w / g);
+            totalGoals[p] = goals[p * 2 + FORWARD] + goals[p * 2 + GOALIE];
+        }
+        players.sort(Comparator.<Integer>comparingDouble(p -> -winPct[p])
+                .thenComparingInt(p -> -totalGoals[p])
+                .thenComparingLong(p -> c.playerIds()[p]));
+
+        List<Map<String, Object>> rows = new ArrayList<>(players.size());
+        for (int p : players) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("display_name", c.names()[p]);
+            row.put("games", games[p * 2 + FORWARD] + games[p * 2 + GOALIE]);
+            row.put("wins", wins[p * 2 + FORWARD] + wins[p * 2 + GOALIE]);
+            row.put("win_pct", winPct[p]);
+            row.put("goals", totalGoals[p]);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static List<Map<String, Object>> forwards(Columns c, int[][] totals) {
+        int[] games = totals[0];
+        int[] goals = totals[2];
+        List<Integer> players = new ArrayList<>();
+        double[] perGame = new double[c.players()];
+        for (int p = 0; p < c.players(); p++) {
+            int cell = p * 2 + FORWARD;
+            if (games[cell] == 0) continue;
+            perGame[p] = roundTenths((double) goals[cell] / games[cell]);
+            players.add(p);
+        }
+        players.sort(Comparator.<Integer>comparingDouble(p -> -perGame[p])
+                .thenComparingInt(p -> -goals[p * 2 + FORWARD])
+                .thenComparingLong(p -> c.playerIds()[p]));
+
+        List<Map<String, Object>> rows = new ArrayList<>(players.size());
+        for (int p : players) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("display_name", c.names()[p]);
+            row.put("goals", goals[p * 2 + FORWARD]);
+            row.put("per_game", perGame[p]);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static List<Map<String, Object>> goalies(Columns c, int[][] totals) {
+        int[] games = totals[0];
+        int[] against = totals[3];
+        List<Integer> players = new ArrayList<>();
+        double[] perGame = new double[c.players()];
+        for (int p = 0; p < c.players(); p++) {
+            int cell = p * 2 + GOALIE;
+            if (games[cell] == 0) continue;
+            perGame[p] = roundTenths((double) against[cell] / games[cell]);
+            players.add(p);
+        }
+        players.sort(Comparator.<Integer>comparingDouble(p -> perGame[p])
+                .thenComparingLong(p -> c.playerIds()[p]));
+
+        List<Map<String, Object>> rows = new ArrayList<>(players.size());
+        for (int p : players) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("display_name", c.names()[p]);
+            row.put("goals_let_in", against[p * 2 + GOALIE]);
+            row.put("per_game", perGame[p]);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    // Matches SQLite's ROUND(x, 1) for the non-negative ratios used here
+    private static double roundTenths(double value) {
+        return new BigDecimal(value).setScale(1, RoundingMode.HALF_UP).doubleValue();
+    }
+
+    private static Columns empty() {
+        return new Columns(0, new int[0], new byte[0], new short[0], new short[0], new int[0],
+                0, new long[0], new String[0], new int[0], new int[0]);
+    }
+
+    private static Columns withCounts(Columns c, int size, int players) {
+        return new Columns(size, c.player(), c.flags(), c.goals(), c.goalsAgainst(), c.day(),
+                players, c.playerIds(), c.names(), c.games(), c.goalieGames());
+    }
+
+    /**
+     * Shares the row arrays, which readers only see up to their size, but
+     * copies the per-player arrays that a write changes in place.
+     */
+    private static Columns copyPlayers(Columns c) {
+        return new Columns(c.size(), c.player(), c.flags(), c.goals(), c.goalsAgainst(), c.day(),
+                c.players(), c.playerIds(),
+                c.names().clone(), c.games().clone(), c.goalieGames().clone());
+    }
+
+    private static Columns copyOf(Columns c, int rowCapacity, int playerCapacity) {
+        return new Columns(c.size(),
+                Arrays.copyOf(c.player(), rowCapacity),
+                Arrays.copyOf(c.flags(), rowCapacity),
+                Arrays.copyOf(c.goals(), rowCapacity),
+                Arrays.copyOf(c.goalsAgainst(), rowCapacity),
+                Arrays.copyOf(c.day(), rowCapacity),
+                c.players(),
+                Arrays.copyOf(c.playerIds(), playerCapacity),
+                Arrays.copyOf(c.names(), playerCapacity),
+                Arrays.copyOf(c.games(), playerCapacity),
+                Arrays.copyOf(c.goalieGames(), playerCapacity));
+    }
+}
@@ -0,0 +1,93 @@
+package com.baboon.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One mailbox per channel. Tasks for a channel run one at a time in submission
+ * order on virtual threads, so lobby and game state for that channel is only
+ * ever touched by one thread at a time. Different channels run in parallel and
+ * no lock is shared between them. Calls made from inside a channel's own task
+ * run inline instead of queueing behind themselves.
+ */
+@Singleton
+public class ChannelExecutor {
+
+    private static final ThreadLocal<String> CURRENT_CHANNEL = new ThreadLocal<>();
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ConcurrentHashMap<String, CompletableFuture<?>> tails = new ConcurrentHashMap<>();
+
+    /**
+     * Queues a task behind earlier tasks for the channel.
+     */
+    public <T> CompletableFuture<T> submit(String channelId, Callable<T> task) {
+        @SuppressWarnings("unchecked")
+        CompletableFuture<T>[] next = new CompletableFuture[1];
+        tails.compute(channelId, (id, tail) -> {
+            CompletableFuture<?> previous = tail != null ? tail : CompletableFuture.completedFuture(null);
+            // A failed task must not stop the ones queued behind it
+            next[0] = previous.handle((v, e) -> null)
+                    .thenApplyAsync(ignored -> runOn(channelId, task), executor);
+            return next[0];
+        });
+        // Drop the chain once it drains so idle channels do not accumulate
+        next[0].whenComplete((v, e) -> tails.remove(channelId, next[0]));
+        return next[0];
+    }
+
+    /**
+     * Runs a task in the channel's mailbox and waits for its result.
+     */
+    public <T> T call(String channelId, Callable<T> task) {
+        if (channelId.equals(CURRENT_CHANNEL.get())) {
+            return invoke(task);
+        }
+        try {
+            return submit(channelId, task).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw e;
+        }
+    }
+
+    public void run(String channelId, Runnable task) {
+        call(channelId, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private static <T> T runOn(String channelId, Callable<T> task) {
+        CURRENT_CHANNEL.set(channelId);
+        try {
+            return invoke(task);
+        } finally {
+            CURRENT_CHANNEL.remove();
+        }
+    }
+
+    private static <T> T invoke(Callable<T> task) {
+        try {
+            return task.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.baboon.service;
+
+import com.baboon.model.GameResult;
+import com.baboon.repository.GameRepository;
+import jakarta.inject.Singleton;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Loads every completed game for in-memory indexes that are rebuilt from history.
+ * During startup the indexes warm in parallel and share one load through
+ * {@link #startup()}; the orchestrator releases it once they are all done.
+ */
+@Singleton
+public class GameHistory {
+
+    private static final long CHUNK = 5_000;
+
+    private final GameRepository gameRepository;
+    private List<GameResult> startup;
+
+    public GameHistory(GameRepository gameRepository) {
+        this.gameRepository = gameRepository;
+    }
+
+    /**
+     * The history shared by startup warmers, loaded by whichever asks first.
+     * The list is unmodifiable; callers that reorder it must copy it.
+     */
+    public synchronized List<GameResult> startup() {
+        if (startup == null) {
+            startup = List.copyOf(load());
+        }
+        return startup;
+    }
+
+    /**
+     * Drops the shared startup history so it can be collected.
+     */
+    public synchronized void release() {
+        startup = null;
+    }
+
+    /**
+     * Loads completed games in id ranges in parallel on the read pool and
+     * returns them in id order.
+     */
+    public List<GameResult> load() {
+        long maxId = gameRepository.getMaxCompletedGameId();
+        List<GameResult> history = new ArrayList<>();
+        try (ExecutorService loaders = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<List<GameResult>>> chunks = new ArrayList<>();
+            for (long from = 0; from <= maxId; from += CHUNK) {
+                long start = from;
+                chunks.add(loaders.submit(() -> gameRepository.findCompletedResults(start, start + CHUNK)));
+            }
+            for (Future<List<GameResult>> chunk : chunks) {
+                history.addAll(chunk.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted loading game history", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to load game history", e.getCause());
+        }
+        return history;
+    }
+}
@@ -1,7 +1,8 @@
 package com.baboon.service;
 
+import com.baboon.config.MatchmakingConfig;
+import com.baboon.live.ScoreBroadcaster;
 import com.baboon.model.*;
-import com.baboon.repository.GamePlayerRepository;
 import com.baboon.repository.GameRepository;
 import com.baboon.repository.PlayerRepository;
 import jakarta.inject.Singleton;
@@ -9,103 +10,217 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Active games per channel, one per table. Every mutation runs in the channel's
+ * mailbox on {@link ChannelExecutor}, so goals and completion for one game never race,
+ * and is reported from there to {@link ScoreBroadcaster} for live scoreboards.
+ */
 @Singleton
 public class GameService {
 
     private static final Logger LOG = LoggerFactory.getLogger(GameService.class);
 
-    private final ConcurrentHashMap<String, GameState> activeGames = new ConcurrentHashMap<>();
+    // Channel id to that channel's games by game id
+    private final ConcurrentHashMap<String, Map<Long, GameState>> activeGames = new ConcurrentHashMap<>();
     private final GameRepository gameRepository;
-    private final GamePlayerRepository gamePlayerRepository;
     private final PlayerRepository playerRepository;
+    private final GoalJournal goalJournal;
+    private final StatsService statsService;
+    private final RatingService ratingService;
+    private final HeadToHeadIndex headToHead;
+    private final ChannelExecutor channels;
+    private final MatchmakingConfig matchmakingConfig;
+    private final ScoreBroadcaster broadcaster;
 
     public GameService(GameRepository gameRepository,
-                       GamePlayerRepository gamePlayerRepository,
-                       PlayerRepository playerRepository) {
+                       PlayerRepository playerRepository,
+                       GoalJournal goalJournal,
+                       StatsService statsService,
+                       RatingService ratingService,
+                       HeadToHeadIndex headToHead,
+                       ChannelExecutor channels,
+                       MatchmakingConfig matchmakingConfig,
+                       ScoreBroadcaster broadcaster) {
         this.gameRepository = gameRepository;
-        this.gamePlayerRepository = gamePlayerRepository;
         this.playerRepository = playerRepository;
+        this.goalJournal = goalJournal;
+        this.statsService = statsService;
+        this.ratingService = ratingService;
+        this.headToHead = headToHead;
+        this.channels = channels;
+        this.matchmakingConfig = matchmakingConfig;
+        this.broadcaster = broadcaster;
     }
 
     public boolean hasActiveGame(String channelId) {
-        return activeGames.containsKey(channelId);
+        return !games(channelId).isEmpty();
     }
 
-    public GameState getActiveGame(String channelId) {
-        return activeGames.get(channelId);
+    public boolean hasFreeTable(String channelId) {
+        return games(channelId).size() < matchmakingConfig.getTables();
     }
 
+    /**
+     * The channel's active games in table order.
+     */
+    public List<GameState> getActiveGames(String channelId) {
+        List<GameState> games = new ArrayList<>(games(channelId).values());
+        games.sort(Comparator.comparingInt(GameState::getTable));
+        return games;
+    }
+
+    public GameState getActiveGame(String channelId, long gameId) {
+        return games(channelId).get(gameId);
+    }
+
+    public boolean isPlaying(String channelId, String userId) {
+        for (GameState game : games(channelId).values()) {
+            if (game.isParticipant(userId)) return true;
+        }
+        return false;
+    }
+
+    public GameState findGameByGamePlayerId(String channelId, long gamePlayerId) {
+        for (GameState game : games(channelId).values()) {
+            if (game.getPlayerByGamePlayerId(gamePlayerId) != null) return game;
+        }
+        return null;
+    }
+
+    /**
+     * Starts the lobby's game on the lowest free table, or returns null if every table is taken.
+     */
     public GameState startGame(LobbyState lobby) {
-        String channelId = lobby.getChannelId();
+        return channels.call(lobby.getChannelId(), () -> hasFreeTable(lobby.getChannelId()) ? doStartGame(lobby) : null);
+    }
 
-        // Create game in DB
-        Game game = gameRepository.create(channelId);
-        gameRepository.setStartTime(game.getId(), LocalDateTime.now());
+    private GameState doStartGame(LobbyState lobby) {
+        String channelId = lobby.getChannelId();
 
-        GameState gameState = new GameState(game.getId(), channelId);
+        // Resolve all players in one query
+        Map<String, String> displayNames = new LinkedHashMap<>();
+        for (LobbyState.LobbyPlayer lp : lobby.getPlayers()) {
+            displayNames.put(lp.getUserId(), lp.getDisplayName());
+        }
+        Map<String, Player> players = playerRepository.findOrCreateAll(displayNames);
 
-        // Persist players and build game state
+        List<GamePlayer> gamePlayers = new ArrayList<>();
         for (LobbyState.LobbyPlayer lp : lobby.getPlayers()) {
-            Player player = playerRepository.findOrCreate(lp.getUserId(), lp.getDisplayName());
-            gamePlayerRepository.create(game.getId(), player.getId(), lp.getTeam(), lp.getPosition());
-
-            // Get the created game_player record to get its ID
-            var gamePlayers = gamePlayerRepository.findByGameId(game.getId());
-            var gp = gamePlayers.stream()
-                    .filter(g -> g.getPlayerId() == player.getId())
-                    .findFirst().orElseThrow();
-
-            gameState.getPlayers().add(new GameState.GamePlayerState(
-                    gp.getId(), lp.getUserId(), lp.getDisplayName(),
-                    lp.getTeam(), lp.getPosition()));
+            GamePlayer gp = new GamePlayer();
+            gp.setPlayerId(players.get(lp.getUserId()).getId());
+            gp.setTeam(lp.getTeam());
+            gp.setPosition(lp.getPosition());
+            gp.setSlackUserId(lp.getUserId());
+            gp.setDisplayName(lp.getDisplayName());
+            gamePlayers.add(gp);
+        }
+
+        // Game, start time and players in one transaction
+        Game game = gameRepository.start(channelId, LocalDateTime.now(), gamePlayers);
+
+        // Same instant as the stored start time, so the game lands on the same stats day in memory and in SQLite
+        GameState gameState = new GameState(game.getId(), channelId,
+                game.getStartTime().atZone(ZoneId.systemDefault()).toInstant());
+        gameState.setTable(freeTable(channelId));
+        for (GamePlayer gp : gamePlayers) {
+            gameState.addPlayer(new GameState.GamePlayerState(
+                    gp.getId(), gp.getPlayerId(), gp.getSlackUserId(), gp.getDisplayName(),
+                    gp.getTeam(), gp.getPosition()));
         }
 
-        activeGames.put(channelId, gameState);
+        activeGames.computeIfAbsent(channelId, id -> new ConcurrentHashMap<>()).put(game.getId(), gameState);
         LOG.info("Game {} started in channel {}", game.getId(), channelId);
+        broadcaster.gameStarted(gameState);
         return gameState;
     }
 
     public void addGoal(String channelId, long gamePlayerId) {
-        GameState game = activeGames.get(channelId);
-        if (game == null) return;
+        channels.run(channelId, () -> {
+            GameState game = findGameByGamePlayerId(channelId, gamePlayerId);
+            if (game != null && game.addGoal(gamePlayerId)) {
+                goalJournal.append(gamePlayerId);
+                broadcaster.goalScored(game, gamePlayerId);
+            }
+        });
+    }
 
-        GameState.GamePlayerState player = game.getPlayerByGamePlayerId(gamePlayerId);
-        if (player != null) {
-            player.addGoal();
-            gamePlayerRepository.addGoal(gamePlayerId);
-        }
+    public void gameWon(String channelId, long gameId) {
+        channels.run(channelId, () -> {
+            GameState game = getActiveGame(channelId, gameId);
+            if (game == null) return;
+
+            Team winner = game.getLeadingTeam();
+            if (winner == Team.BLUE) {
+                game.setBlueWins(game.getBlueWins() + 1);
+            } else if (winner == Team.RED) {
+                game.setRedWins(game.getRedWins() + 1);
+            }
+        });
     }
 
-    public void gameWon(String channelId) {
-        GameState game = activeGames.get(channelId);
-        if (game == null) return;
+    public GameState completeGame(String channelId, long gameId) {
+        return channels.call(channelId, () -> {
+            GameState game = getActiveGame(channelId, gameId);
+            if (game == null) return null;
+
+            // player_stats reads goals from game_players, so pending goals must land first.
+            // The game stays active until both writes succeed, so a failure leaves it completable.
+            goalJournal.flush();
+            GameResult result = game.toResult(LocalDateTime.now());
+            gameRepository.complete(game.getGameId(), result.endTime(), game.getBlueScore(), game.getRedScore());
+            removeGame(channelId, gameId);
+            ratingService.recordGame(result);
+            headToHead.recordGame(result);
+            statsService.recordGame(result);
+            broadcaster.gameCompleted(game);
+            LOG.info("Game {} completed in channel {}", game.getGameId(), channelId);
+            return game;
+        });
+    }
 
-        Team winner = game.getLeadingTeam();
-        if (winner == Team.BLUE) {
-            game.setBlueWins(game.getBlueWins() + 1);
-        } else if (winner == Team.RED) {
-            game.setRedWins(game.getRedWins() + 1);
-        }
+    public GameState cancelGame(String channelId, long gameId) {
+        return channels.call(channelId, () -> {
+            GameState game = getActiveGame(channelId, gameId);
+            if (game != null) {
+                gameRepository.updateStatus(game.getGameId(), GameStatus.CANCELLED);
+                removeGame(channelId, gameId);
+                broadcaster.gameCancelled(game);
+                LOG.info("Game {} cancelled in channel {}", game.getGameId(), channelId);
+            }
+            return game;
+        });
     }
 
-    public GameState completeGame(String channelId) {
-        GameState game = activeGames.remove(channelId);
-        if (game == null) return null;
+    private Map<Long, GameState> games(String channelId) {
+        return activeGames.getOrDefault(channelId, Map.of());
+    }
 
-        gameRepository.setEndTime(game.getGameId(), LocalDateTime.now());
-        gameRepository.updateStatus(game.getGameId(), GameStatus.COMPLETED);
-        LOG.info("Game {} completed in channel {}", game.getGameId(), channelId);
-        return game;
+    private GameState removeGame(String channelId, long gameId) {
+        Map<Long, GameState> games = activeGames.get(channelId);
+        return games != null ? games.remove(gameId) : null;
     }
 
-    public GameState cancelGame(String channelId) {
-        GameState game = activeGames.remove(channelId);
-        if (game != null) {
-            gameRepository.updateStatus(game.getGameId(), GameStatus.CANCELLED);
-            LOG.info("Game {} cancelled in channel {}", game.getGameId(), channelId);
+    /**
+     * Lowest table number not in use, or 0 when the channel only has one table.
+     */
+    private int freeTable(String channelId) {
+        if (matchmakingConfig.getTables() <= 1) return 0;
+        Set<Integer> taken = new HashSet<>();
+        for (GameState game : games(channelId).values()) {
+            taken.add(game.getTable());
         }
-        return game;
+        int table = 1;
+        while (taken.contains(table)) table++;
+        return table;
     }
 }
@@ -0,0 +1,113 @@
+package com.baboon.service;
+
+import com.baboon.config.GoalJournalConfig;
+import com.baboon.repository.GamePlayerRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Write-behind journal for goals. Clicks only enqueue; a single writer thread
+ * drains the queue into batched transactions every flush interval, or sooner
+ * once max-batch-size goals are pending. A crash loses at most one interval.
+ */
+@Singleton
+public class GoalJournal {
+
+    private static final Logger LOG = LoggerFactory.getLogger(GoalJournal.class);
+
+    private final ConcurrentLinkedQueue<Long> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    // At most one early drain queued, however many goals arrive while the database is slow
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final GamePlayerRepository gamePlayerRepository;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "goal-journal");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public GoalJournal(GamePlayerRepository gamePlayerRepository, GoalJournalConfig config) {
+        this.gamePlayerRepository = gamePlayerRepository;
+        this.maxBatchSize = config.getMaxBatchSize();
+        long intervalMs = config.getFlushInterval().toMillis();
+        writer.scheduleWithFixedDelay(this::drainQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void append(long gamePlayerId) {
+        pending.add(gamePlayerId);
+        if (pendingCount.incrementAndGet() >= maxBatchSize && drainScheduled.compareAndSet(false, true)) {
+            writer.execute(() -> {
+                // Cleared first, so goals appended during this drain can queue the next one
+                drainScheduled.set(false);
+                drainQuietly();
+            });
+        }
+    }
+
+    /**
+     * Blocks until every goal appended so far has been written.
+     */
+    public void flush() {
+        try {
+            writer.submit(this::drain).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while flushing goals", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to flush goals", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        try {
+            flush();
+        } finally {
+            writer.shutdown();
+        }
+    }
+
+    private void drainQuietly() {
+        try {
+            drain();
+        } catch (RuntimeException e) {
+            LOG.error("Failed to flush goals, will retry", e);
+        }
+    }
+
+    private void drain() {
+        Map<Long, Integer> batch = new LinkedHashMap<>();
+        Long gamePlayerId;
+        while ((gamePlayerId = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            batch.merge(gamePlayerId, 1, Integer::sum);
+        }
+        if (batch.isEmpty()) return;
+
+        try {
+            gamePlayerRepository.addGoals(batch);
+        } catch (RuntimeException e) {
+            // Put the goals back so the next flush retries them
+            batch.forEach((id, goals) -> {
+                for (int i = 0; i < goals; i++) {
+                    pending.add(id);
+                    pendingCount.incrementAndGet();
+                }
+            });
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.baboon.service;
+
+import com.baboon.model.GamePlayer;
+import com.baboon.model.GameResult;
+import com.baboon.model.Team;
+import com.baboon.startup.Warmer;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Partner and opponent records for every pair of players. Players get a dense
+ * index on first sight, and each matrix is a flat int array with the cell for
+ * (a, b) at a * capacity + b, so a game is a handful of increments and a
+ * player's row is a contiguous scan. Loaded once from history at startup and
+ * updated as games complete.
+ */
+@Singleton
+public class HeadToHeadIndex implements Warmer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HeadToHeadIndex.class);
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final GameHistory history;
+
+    private final Map<Long, Integer> indexByPlayerId = new HashMap<>();
+    private String[] displayNames = new String[INITIAL_CAPACITY];
+    private int capacity = INITIAL_CAPACITY;
+    private int size;
+    // Games a and b played on the same team, and how many of those they won
+    private int[] partnerGames = new int[INITIAL_CAPACITY * INITIAL_CAPACITY];
+    private int[] partnerWins = new int[INITIAL_CAPACITY * INITIAL_CAPACITY];
+    // Games a played against b, and how many of those a won
+    private int[] opponentGames = new int[INITIAL_CAPACITY * INITIAL_CAPACITY];
+    private int[] opponentWins = new int[INITIAL_CAPACITY * INITIAL_CAPACITY];
+
+    public HeadToHeadIndex(GameHistory history) {
+        this.history = history;
+    }
+
+    @Override
+    public void warm() {
+        long started = System.nanoTime();
+        List<GameResult> games = history.startup();
+        synchronized (this) {
+            for (GameResult result : games) {
+                record(result);
+            }
+        }
+        LOG.info("Loaded head-to-head records for {} players from {} games in {} ms",
+                size, games.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    public synchronized void recordGame(GameResult result) {
+        record(result);
+    }
+
+    public synchronized void reset() {
+        indexByPlayerId.clear();
+        Arrays.fill(displayNames, null);
+        size = 0;
+        Arrays.fill(partnerGames, 0);
+        Arrays.fill(partnerWins, 0);
+        Arrays.fill(opponentGames, 0);
+        Arrays.fill(opponentWins, 0);
+    }
+
+    /**
+     * Teammates of the player, most wins together first.
+     */
+    public synchronized List<Map<String, Object>> getPartners(long playerId, int limit) {
+        Integer a = indexByPlayerId.get(playerId);
+        if (a == null) return List.of();
+
+        int[] order = rowOrder(a, partnerGames, partnerWins, false);
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < order.length && rows.size() < limit; i++) {
+            int cell = a * capacity + order[i];
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("display_name", displayNames[order[i]]);
+            row.put("games", partnerGames[cell]);
+            row.put("wins", partnerWins[cell]);
+            row.put("win_pct", Math.round(100.0 * partnerWins[cell] / partnerGames[cell]));
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * Opponents of the player, most losses against them first.
+     */
+    public synchronized List<Map<String, Object>> getOpponents(long playerId, int limit) {
+        Integer a = indexByPlayerId.get(playerId);
+        if (a == null) return List.of();
+
+        int[] order = rowOrder(a, opponentGames, opponentWins, true);
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < order.length && rows.size() < limit; i++) {
+            int cell = a * capacity + order[i];
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("display_name", displayNames[order[i]]);
+            row.put("games", opponentGames[cell]);
+            row.put("losses", opponentGames[cell] - opponentWins[cell]);
+            row.put("win_pct", Math.round(100.0 * opponentWins[cell] / opponentGames[cell]));
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * Pairs of players who met most often as opponents.
+     */
+    public synchronized List<Map<String, Object>> getRivals(int limit) {
+        // Upper triangle only: (a, b) and (b, a) are the same rivalry
+        int[] topCells = new int[limit];
+        int found = 0;
+        for (int a = 0; a < size; a++) {
+            for (int b = a + 1; b < size; b++) {
+                int cell = a * capacity + b;
+                int games = opponentGames[cell];
+                if (games == 0) continue;
+                // Insertion into a small sorted buffer keeps this a single pass
+                int pos = found;
+                while (pos > 0 && opponentGames[topCells[pos - 1]] < games) pos--;
+                if (pos >= limit) continue;
+                int end = Math.min(found, limit - 1);
+                System.arraycopy(topCells, pos, topCells, pos + 1, end - pos);
+                topCells[pos] = cell;
+                if (found < limit) found++;
+            }
+        }
+
+        List<Map<String, Object>> rows = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) {
+            int cell = topCells[i];
+            int a = cell / capacity;
+            int b = cell % capacity;
+            int aWins = opponentWins[cell];
+            int bWins = opponentWins[b * capacity + a];
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("rivalry", displayNames[a] + " vs " + displayNames[b]);
+            row.put("games", opponentGames[cell]);
+            row.put("record", aWins + "-" + bWins);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private void record(GameResult result) {
+        Team winner = result.winner();
+        List<GamePlayer> players = result.players();
+        int n = players.size();
+        int[] indexes = new int[n];
+        for (int i = 0; i < n; i++) {
+            indexes[i] = indexOf(players.get(i));
+        }
+
+        for (int i = 0; i < n; i++) {
+            Team team = players.get(i).getTeam();
+            boolean won = team == winner;
+            int row = indexes[i] * capacity;
+            for (int j = 0; j < n; j++) {
+                if (i == j) continue;
+                int cell = row + indexes[j];
+                if (players.get(j).getTeam() == team) {
+                    partnerGames[cell]++;
+                    if (won) partnerWins[cell]++;
+                } else {
+                    opponentGames[cell]++;
+                    if (won) opponentWins[cell]++;
+                }
+            }
+        }
+    }
+
+    private int indexOf(GamePlayer gp) {
+        Integer index = indexByPlayerId.get(gp.getPlayerId());
+        if (index == null) {
+            if (size == capacity) grow();
+            index = size++;
+            indexByPlayerId.put(gp.getPlayerId(), index);
+        }
+        // Keep the latest name so renames show up
+        if (gp.getDisplayName() != null) displayNames[index] = gp.getDisplayName();
+        return index;
+    }
+
+    private void grow() {
+        int newCapacity = capacity * 2;
+        partnerGames = resize(partnerGames, newCapacity);
+        partnerWins = resize(partnerWins, newCapacity);
+        opponentGames = resize(opponentGames, newCapacity);
+        opponentWins = resize(opponentWins, newCapacity);
+        displayNames = Arrays.copyOf(displayNames, newCapacity);
+        capacity = newCapacity;
+    }
+
+    private int[] resize(int[] matrix, int newCapacity) {
+        int[] resized = new int[newCapacity * newCapacity];
+        for (int row = 0; row < size; row++) {
+            System.arraycopy(matrix, row * capacity, resized, row * newCapacity, size);
+        }
+        return resized;
+    }
+
+    /**
+     * Column indexes of a player's row that have games, sorted by wins (or
+     * losses) descending, then by games.
+     */
+    private int[] rowOrder(int a, int[] games, int[] wins, boolean byLosses) {
+        int row = a * capacity;
+        int count = 0;
+        long[] keys = new long[size];
+        for (int b = 0; b < size; b++) {
+            int g = games[row + b];
+            if (g == 0) continue;
+            int primary = byLosses ? g - wins[row + b] : wins[row + b];
+            // Pack primary, games and index into one long so a primitive sort orders them
+            keys[count++] = ((long) primary << 42) | ((long) g << 21) | b;
+        }
+        long[] sorted = Arrays.copyOf(keys, count);
+        Arrays.sort(sorted);
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = (int) (sorted[count - 1 - i] & 0x1FFFFF);
+        }
+        return order;
+    }
+}
@@ -6,8 +6,13 @@ import jakarta.inject.Singleton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Lobby state per channel. Every mutation runs in the channel's mailbox on
+ * {@link ChannelExecutor}, so a lobby is never changed by two threads at once.
+ */
 @Singleton
 public class LobbyService {
 
@@ -15,13 +20,17 @@ public class LobbyService {
 
     private final ConcurrentHashMap<String, LobbyState> lobbies = new ConcurrentHashMap<>();
     private final GameService gameService;
+    private final TeamBalancer teamBalancer;
+    private final ChannelExecutor channels;
 
-    public LobbyService(GameService gameService) {
+    public LobbyService(GameService gameService, TeamBalancer teamBalancer, ChannelExecutor channels) {
         this.gameService = gameService;
+        this.teamBalancer = teamBalancer;
+        this.channels = channels;
     }
 
     public boolean isChannelBusy(String channelId) {
-        return lobbies.containsKey(channelId) || gameService.hasActiveGame(channelId);
+        return lobbies.containsKey(channelId) || !gameService.hasFreeTable(channelId);
     }
 
     public boolean hasLobby(String channelId) {
@@ -29,7 +38,7 @@ public class LobbyService {
     }
 
     public LobbyState getOrCreateLobby(String channelId) {
-        return lobbies.computeIfAbsent(channelId, LobbyState::new);
+        return channels.call(channelId, () -> lobbies.computeIfAbsent(channelId, LobbyState::new));
     }
 
     public LobbyState getLobby(String channelId) {
@@ -37,41 +46,70 @@ public class LobbyService {
     }
 
     public void joinLobby(String channelId, String userId, String displayName) {
-        LobbyState lobby = getOrCreateLobby(channelId);
-        lobby.addPlayer(userId, displayName);
+        channels.run(channelId, () -> getOrCreateLobby(channelId).addPlayer(userId, displayName));
         LOG.info("Player {} joined lobby in channel {}", displayName, channelId);
     }
 
+    /**
+     * Opens a lobby seeded with the given players, in seating order.
+     */
+    public LobbyState openLobby(String channelId, Map<String, String> players) {
+        return channels.call(channelId, () -> {
+            LobbyState lobby = new LobbyState(channelId);
+            players.forEach(lobby::addPlayer);
+            lobbies.put(channelId, lobby);
+            return lobby;
+        });
+    }
+
     public void switchPositions(String channelId, Team team) {
-        LobbyState lobby = lobbies.get(channelId);
-        if (lobby != null) {
-            lobby.switchPositions(team);
-        }
+        channels.run(channelId, () -> {
+            LobbyState lobby = lobbies.get(channelId);
+            if (lobby != null) {
+                lobby.switchPositions(team);
+            }
+        });
     }
 
     public void shuffleTeams(String channelId) {
-        LobbyState lobby = lobbies.get(channelId);
-        if (lobby != null) {
-            lobby.shuffleTeams();
-        }
+        channels.run(channelId, () -> {
+            LobbyState lobby = lobbies.get(channelId);
+            if (lobby != null) {
+                lobby.shuffleTeams();
+            }
+        });
+    }
+
+    public void balanceTeams(String channelId) {
+        channels.run(channelId, () -> {
+            LobbyState lobby = lobbies.get(channelId);
+            if (lobby == null) return;
+
+            int[] order = teamBalancer.balance(lobby);
+            if (order != null) {
+                lobby.arrange(order);
+            }
+        });
     }
 
     public void toggleReady(String channelId, String userId) {
-        LobbyState lobby = lobbies.get(channelId);
-        if (lobby != null) {
-            LobbyState.LobbyPlayer player = lobby.getPlayer(userId);
-            if (player != null) {
-                player.setReady(!player.isReady());
+        channels.run(channelId, () -> {
+            LobbyState lobby = lobbies.get(channelId);
+            if (lobby != null) {
+                LobbyState.LobbyPlayer player = lobby.getPlayer(userId);
+                if (player != null) {
+                    player.setReady(!player.isReady());
+                }
             }
-        }
+        });
     }
 
     public void cancelLobby(String channelId) {
-        lobbies.remove(channelId);
+        channels.run(channelId, () -> lobbies.remove(channelId));
         LOG.info("Lobby cancelled in channel {}", channelId);
     }
 
     public LobbyState removeLobby(String channelId) {
-        return lobbies.remove(channelId);
+        return channels.call(channelId, () -> lobbies.remove(channelId));
     }
 }
@@ -0,0 +1,129 @@
+package com.baboon.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Players waiting for a table in one channel, indexed two ways: by arrival for
+ * fairness and by rating for matching. Taking the longest waiter and their
+ * nearest-rated peers is a walk outwards from one point in the rating order,
+ * so forming a match costs O(log n) per player taken however long the queue
+ * gets. A player's place in line is counted by walking the arrival order, so
+ * {@link #position} is O(n); queues are a handful of players per channel.
+ */
+class MatchQueue {
+
+    record QueuedPlayer(String userId, String displayName, double rating, long seq, Instant since) {}
+
+    private static final Comparator<QueuedPlayer> BY_WAIT = Comparator.comparingLong(QueuedPlayer::seq);
+    private static final Comparator<QueuedPlayer> BY_RATING = Comparator
+            .comparingDouble(QueuedPlayer::rating)
+            .thenComparingLong(QueuedPlayer::seq);
+
+    private final NavigableSet<QueuedPlayer> byWait = new TreeSet<>(BY_WAIT);
+    private final NavigableSet<QueuedPlayer> byRating = new TreeSet<>(BY_RATING);
+    private final Map<String, QueuedPlayer> byUser = new HashMap<>();
+    private long nextSeq;
+
+    /**
+     * Adds the player at the back of the queue; returns false if they are already in it.
+     */
+    boolean add(String userId, String displayName, double rating) {
+        if (byUser.containsKey(userId)) return false;
+        QueuedPlayer player = new QueuedPlayer(userId, displayName, rating, nextSeq++, Instant.now());
+        byUser.put(userId, player);
+        byWait.add(player);
+        byRating.add(player);
+        return true;
+    }
+
+    boolean remove(String userId) {
+        QueuedPlayer player = byUser.remove(userId);
+        if (player == null) return false;
+        byWait.remove(player);
+        byRating.remove(player);
+        return true;
+    }
+
+    boolean contains(String userId) {
+        return byUser.containsKey(userId);
+    }
+
+    int size() {
+        return byUser.size();
+    }
+
+    /**
+     * 1-based place in line, or 0 if the player is not queued. Linear in the
+     * number of players ahead.
+     */
+    int position(String userId) {
+        QueuedPlayer player = byUser.get(userId);
+        return player == null ? 0 : byWait.headSet(player, false).size() + 1;
+    }
+
+    List<QueuedPlayer> inOrder() {
+        return new ArrayList<>(byWait);
+    }
+
+    /**
+     * Removes and returns the longest waiting player and the count - 1 players
+     * rated closest to them, or an empty list if fewer than count are waiting.
+     */
+    List<QueuedPlayer> pollMatch(int count) {
+        if (size() < count) return List.of();
+        QueuedPlayer anchor = byWait.first();
+        remove(anchor.userId());
+        List<QueuedPlayer> match = new ArrayList<>(count);
+        match.add(anchor);
+        match.addAll(pollNearest(anchor.rating(), count - 1));
+        return match;
+    }
+
+    /**
+     * Removes and returns two challengers for a team rated teamRating in total:
+     * the longest waiting player, and the partner who brings the pair closest to it.
+     */
+    List<QueuedPlayer> pollChallengers(double teamRating) {
+        if (size() < 2) return List.of();
+        QueuedPlayer anchor = byWait.first();
+        remove(anchor.userId());
+        List<QueuedPlayer> pair = new ArrayList<>(2);
+        pair.add(anchor);
+        pair.addAll(pollNearest(teamRating - anchor.rating(), 1));
+        return pair;
+    }
+
+    private List<QueuedPlayer> pollNearest(double rating, int count) {
+        // Probe sorts before every real entry with the same rating
+        QueuedPlayer probe = new QueuedPlayer(null, null, rating, Long.MIN_VALUE, null);
+        Iterator<QueuedPlayer> below = byRating.headSet(probe, false).descendingIterator();
+        Iterator<QueuedPlayer> above = byRating.tailSet(probe, true).iterator();
+        QueuedPlayer nextBelow = below.hasNext() ? below.next() : null;
+        QueuedPlayer nextAbove = above.hasNext() ? above.next() : null;
+
+        List<QueuedPlayer> nearest = new ArrayList<>(count);
+        while (nearest.size() < count && (nextBelow != null || nextAbove != null)) {
+            boolean takeBelow = nextAbove == null || (nextBelow != null
+                    && rating - nextBelow.rating() <= nextAbove.rating() - rating);
+            if (takeBelow) {
+                nearest.add(nextBelow);
+                nextBelow = below.hasNext() ? below.next() : null;
+            } else {
+                nearest.add(nextAbove);
+                nextAbove = above.hasNext() ? above.next() : null;
+            }
+        }
+        for (QueuedPlayer player : nearest) {
+            remove(player.userId());
+        }
+        return nearest;
+    }
+}
@@ -0,0 +1,163 @@
+package com.baboon.service;
+
+import com.baboon.config.MatchmakingConfig;
+import com.baboon.model.GameState;
+import com.baboon.model.LobbyState;
+import com.baboon.model.PlayerRating;
+import com.baboon.model.Position;
+import com.baboon.model.Team;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Waiting queue per channel for players who arrive while every table is taken
+ * or the lobby is full. When a table frees up, the winners stay on against the
+ * best-matched challengers, or a new match is drawn from the queue, and handed
+ * over as a lobby. Runs in the channel's mailbox like the lobby and game state.
+ */
+@Singleton
+public class MatchmakingService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MatchmakingService.class);
+
+    private final ConcurrentHashMap<String, MatchQueue> queues = new ConcurrentHashMap<>();
+    private final LobbyService lobbyService;
+    private final GameService gameService;
+    private final PlayerService playerService;
+    private final RatingService ratingService;
+    private final ChannelExecutor channels;
+    private final MatchmakingConfig config;
+
+    public MatchmakingService(LobbyService lobbyService, GameService gameService, PlayerService playerService,
+                              RatingService ratingService, ChannelExecutor channels, MatchmakingConfig config) {
+        this.lobbyService = lobbyService;
+        this.gameService = gameService;
+        this.playerService = playerService;
+        this.ratingService = ratingService;
+        this.channels = channels;
+        this.config = config;
+    }
+
+    /**
+     * Queues the player and returns their place in line.
+     */
+    public int enqueue(String channelId, String userId, String displayName) {
+        double rating = ratingOf(userId);
+        return channels.call(channelId, () -> {
+            MatchQueue queue = queues.computeIfAbsent(channelId, id -> new MatchQueue());
+            if (queue.add(userId, displayName, rating)) {
+                LOG.info("Player {} queued in channel {} ({} waiting)", displayName, channelId, queue.size());
+            }
+            return queue.position(userId);
+        });
+    }
+
+    public boolean leave(String channelId, String userId) {
+        return channels.call(channelId, () -> {
+            MatchQueue queue = queues.get(channelId);
+            return queue != null && queue.remove(userId);
+        });
+    }
+
+    /**
+     * 1-based place in line, or 0 if the player is not queued.
+     */
+    public int getPosition(String channelId, String userId) {
+        MatchQueue queue = queues.get(channelId);
+        return queue == null ? 0 : channels.call(channelId, () -> queue.position(userId));
+    }
+
+    public int getQueueSize(String channelId) {
+        MatchQueue queue = queues.get(channelId);
+        return queue == null ? 0 : channels.call(channelId, queue::size);
+    }
+
+    /**
+     * Queue rows in waiting order, for display.
+     */
+    public List<Map<String, Object>> getQueue(String channelId) {
+        MatchQueue queue = queues.get(channelId);
+        if (queue == null) return List.of();
+        Instant now = Instant.now();
+        return channels.call(channelId, () -> queue.inOrder().stream()
+                .<Map<String, Object>>map(p -> {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("display_name", p.displayName());
+                    row.put("waiting", Duration.between(p.since(), now).toMinutes() + "m");
+                    return row;
+                })
+                .toList());
+    }
+
+    /**
+     * Fills a free table from the queue, if there is one and no lobby is open.
+     * Returns the new lobby, or null if nothing changed.
+     */
+    public LobbyState fillTable(String channelId) {
+        return promote(channelId, null);
+    }
+
+    /**
+     * Fills the table a finished game just freed. With winners-stay-on, the
+     * winners keep their positions on blue and face two challengers from the
+     * queue; otherwise, or with fewer than two waiting, a new match of four is
+     * drawn and balanced. Returns the new lobby, or null if nothing changed.
+     */
+    public LobbyState promote(String channelId, GameState finished) {
+        return channels.call(channelId, () -> {
+            MatchQueue queue = queues.get(channelId);
+            if (queue == null || lobbyService.hasLobby(channelId) || !gameService.hasFreeTable(channelId)) {
+                return null;
+            }
+
+            Team winner = finished != null ? finished.getLeadingTeam() : null;
+            Map<String, String> players = new LinkedHashMap<>();
+            boolean balance = false;
+            if (winner != null && config.isWinnersStayOn() && queue.size() >= 2) {
+                GameState.GamePlayerState goalie = null;
+                GameState.GamePlayerState forward = null;
+                double teamRating = 0;
+                for (GameState.GamePlayerState p : finished.getTeam(winner)) {
+                    if (p.getPosition() == Position.GOALIE) goalie = p; else forward = p;
+                    PlayerRating rating = ratingService.getRating(p.getPlayerId());
+                    teamRating += rating != null ? rating.rating() : RatingService.INITIAL_RATING;
+                }
+                if (goalie == null || forward == null) return null;
+                List<MatchQueue.QueuedPlayer> challengers = queue.pollChallengers(teamRating);
+                // Lobby seats in join order: blue goalie, red goalie, blue forward, red forward
+                players.put(goalie.getSlackUserId(), goalie.getDisplayName());
+                players.put(challengers.get(0).userId(), challengers.get(0).displayName());
+                players.put(forward.getSlackUserId(), forward.getDisplayName());
+                players.put(challengers.get(1).userId(), challengers.get(1).displayName());
+            } else {
+                List<MatchQueue.QueuedPlayer> match = queue.pollMatch(4);
+                if (match.isEmpty()) return null;
+                match.forEach(p -> players.put(p.userId(), p.displayName()));
+                balance = true;
+            }
+
+            LobbyState lobby = lobbyService.openLobby(channelId, players);
+            if (balance) {
+                lobbyService.balanceTeams(channelId);
+            }
+            LOG.info("Promoted {} from the queue in channel {} ({} still waiting)",
+                    players.values(), channelId, queue.size());
+            return lobby;
+        });
+    }
+
+    private double ratingOf(String userId) {
+        return playerService.findBySlackUserId(userId)
+                .map(p -> ratingService.getRating(p.getId()))
+                .map(PlayerRating::rating)
+                .orElse(RatingService.INITIAL_RATING);
+    }
+}
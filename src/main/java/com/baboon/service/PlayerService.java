@@ -4,6 +4,8 @@ import com.baboon.model.Player;
 import com.baboon.repository.PlayerRepository;
 import jakarta.inject.Singleton;
 
+import java.util.Optional;
+
 @Singleton
 public class PlayerService {
 
@@ -16,4 +18,8 @@ public class PlayerService {
     public Player findOrCreate(String slackUserId, String displayName) {
         return playerRepository.findOrCreate(slackUserId, displayName);
     }
+
+    public Optional<Player> findBySlackUserId(String slackUserId) {
+        return playerRepository.findBySlackUserId(slackUserId);
+    }
 }
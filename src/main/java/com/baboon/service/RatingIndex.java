@@ -0,0 +1,75 @@
+package com.baboon.service;
+
+import com.baboon.model.PlayerRating;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ratings kept in an array sorted best-first, next to an id map. Rank lookups
+ * are a binary search; top-N is a prefix copy. An update moves one entry with
+ * two array shifts, which for a club-sized player list is cheaper than any
+ * tree rebalancing.
+ */
+class RatingIndex {
+
+    // Highest rating first; player id breaks ties so every entry has a unique position
+    private static final Comparator<PlayerRating> ORDER = Comparator
+            .comparingDouble(PlayerRating::rating).reversed()
+            .thenComparingLong(PlayerRating::playerId);
+
+    private final Map<Long, PlayerRating> byId = new HashMap<>();
+    private PlayerRating[] sorted = new PlayerRating[16];
+    private int size;
+
+    synchronized void reset(Collection<PlayerRating> ratings) {
+        byId.clear();
+        sorted = ratings.toArray(new PlayerRating[Math.max(16, ratings.size())]);
+        size = ratings.size();
+        Arrays.sort(sorted, 0, size, ORDER);
+        for (int i = 0; i < size; i++) {
+            byId.put(sorted[i].playerId(), sorted[i]);
+        }
+    }
+
+    synchronized void put(PlayerRating rating) {
+        PlayerRating previous = byId.put(rating.playerId(), rating);
+        if (previous != null) {
+            int index = Arrays.binarySearch(sorted, 0, size, previous, ORDER);
+            System.arraycopy(sorted, index + 1, sorted, index, size - index - 1);
+            size--;
+        }
+        if (size == sorted.length) {
+            sorted = Arrays.copyOf(sorted, size * 2);
+        }
+        int insertAt = -Arrays.binarySearch(sorted, 0, size, rating, ORDER) - 1;
+        System.arraycopy(sorted, insertAt, sorted, insertAt + 1, size - insertAt);
+        sorted[insertAt] = rating;
+        size++;
+    }
+
+    synchronized PlayerRating get(long playerId) {
+        return byId.get(playerId);
+    }
+
+    /**
+     * Returns the 1-based rank of the player, or 0 if they have no rating.
+     */
+    synchronized int rank(long playerId) {
+        PlayerRating rating = byId.get(playerId);
+        if (rating == null) return 0;
+        return Arrays.binarySearch(sorted, 0, size, rating, ORDER) + 1;
+    }
+
+    synchronized List<PlayerRating> top(int n) {
+        return List.of(Arrays.copyOf(sorted, Math.min(n, size)));
+    }
+
+    synchronized int size() {
+        return size;
+    }
+}
@@ -0,0 +1,166 @@
+package com.baboon.service;
+
+import com.baboon.model.GamePlayer;
+import com.baboon.model.GameResult;
+import com.baboon.model.PlayerRating;
+import com.baboon.model.Team;
+import com.baboon.repository.GameRepository;
+import com.baboon.repository.RatingRepository;
+import com.baboon.startup.Warmer;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongFunction;
+
+/**
+ * Team Elo ratings. Each team plays at the mean rating of its players, and every
+ * player moves by K times the team's result minus its expected result, with a
+ * larger K while a player is still provisional. A completed game touches only
+ * its own players, so updates are constant time; the ranked view is served from
+ * {@link RatingIndex}.
+ */
+@Singleton
+public class RatingService implements Warmer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RatingService.class);
+
+    static final double INITIAL_RATING = 1500;
+    private static final int PROVISIONAL_GAMES = 20;
+    private static final double PROVISIONAL_K = 40;
+    private static final double ESTABLISHED_K = 20;
+
+    private final RatingRepository ratingRepository;
+    private final GameRepository gameRepository;
+    private final GameHistory history;
+    private final RatingIndex index = new RatingIndex();
+    // Serialises read-modify-write of ratings across channels
+    private final Object lock = new Object();
+
+    public RatingService(RatingRepository ratingRepository, GameRepository gameRepository, GameHistory history) {
+        this.ratingRepository = ratingRepository;
+        this.gameRepository = gameRepository;
+        this.history = history;
+    }
+
+    @Override
+    public void warm() {
+        List<PlayerRating> stored = ratingRepository.findAll();
+        if (stored.isEmpty() && gameRepository.getMaxCompletedGameId() > 0) {
+            rebuild();
+        } else {
+            index.reset(stored);
+            LOG.info("Loaded {} player ratings", stored.size());
+        }
+    }
+
+    /**
+     * Rates a just-completed game and persists its players' new ratings.
+     */
+    public void recordGame(GameResult result) {
+        synchronized (lock) {
+            List<PlayerRating> updated = rate(result, index::get);
+            ratingRepository.saveAll(updated);
+            updated.forEach(index::put);
+        }
+    }
+
+    /**
+     * Recomputes every rating from completed games, using the history shared
+     * with the other startup warmers; the replay itself is sequential in
+     * completion order, because each game's update depends on the ratings
+     * produced by the games before it.
+     */
+    public void rebuild() {
+        long started = System.nanoTime();
+        List<GameResult> games = new ArrayList<>(history.startup());
+        games.sort(Comparator.comparing(GameResult::endTime, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparingLong(GameResult::gameId));
+
+        synchronized (lock) {
+            Map<Long, PlayerRating> ratings = new HashMap<>();
+            for (GameResult result : games) {
+                for (PlayerRating rating : rate(result, ratings::get)) {
+                    ratings.put(rating.playerId(), rating);
+                }
+            }
+            ratingRepository.replaceAll(ratings.values());
+            index.reset(ratings.values());
+            LOG.info("Replayed {} games into {} ratings in {} ms",
+                    games.size(), ratings.size(), (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    /**
+     * Drops the in-memory ratings after the stored stats were reset.
+     */
+    public void reset() {
+        synchronized (lock) {
+            index.reset(List.of());
+        }
+    }
+
+    public List<PlayerRating> getTop(int n) {
+        return index.top(n);
+    }
+
+    /**
+     * Returns the player's 1-based rank, or 0 if they have not finished a game.
+     */
+    public int getRank(long playerId) {
+        return index.rank(playerId);
+    }
+
+    public PlayerRating getRating(long playerId) {
+        return index.get(playerId);
+    }
+
+    public int getRatedCount() {
+        return index.size();
+    }
+
+    private static List<PlayerRating> rate(GameResult result, LongFunction<PlayerRating> current) {
+        List<PlayerRating> before = new ArrayList<>(result.players().size());
+        double blueTotal = 0;
+        double redTotal = 0;
+        int blueCount = 0;
+        int redCount = 0;
+        for (GamePlayer gp : result.players()) {
+            PlayerRating rating = current.apply(gp.getPlayerId());
+            if (rating == null) {
+                rating = new PlayerRating(gp.getPlayerId(), gp.getDisplayName(), INITIAL_RATING, 0);
+            }
+            before.add(rating);
+            if (gp.getTeam() == Team.BLUE) {
+                blueTotal += rating.rating();
+                blueCount++;
+            } else {
+                redTotal += rating.rating();
+                redCount++;
+            }
+        }
+        if (blueCount == 0 || redCount == 0) return List.of();
+
+        double blueRating = blueTotal / blueCount;
+        double redRating = redTotal / redCount;
+        double blueExpected = 1 / (1 + Math.pow(10, (redRating - blueRating) / 400));
+        Team winner = result.winner();
+        double blueResult = winner == Team.BLUE ? 1 : winner == Team.RED ? 0 : 0.5;
+
+        List<PlayerRating> after = new ArrayList<>(before.size());
+        for (int i = 0; i < before.size(); i++) {
+            PlayerRating rating = before.get(i);
+            GamePlayer gp = result.players().get(i);
+            double delta = gp.getTeam() == Team.BLUE ? blueResult - blueExpected : blueExpected - blueResult;
+            double k = rating.games() < PROVISIONAL_GAMES ? PROVISIONAL_K : ESTABLISHED_K;
+            String name = gp.getDisplayName() != null ? gp.getDisplayName() : rating.displayName();
+            after.add(new PlayerRating(rating.playerId(), name, rating.rating() + k * delta, rating.games() + 1));
+        }
+        return after;
+    }
+}
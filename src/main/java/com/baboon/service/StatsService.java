@@ -1,38 +1,136 @@
 package com.baboon.service;
 
+import com.baboon.model.GameResult;
+import com.baboon.model.StatsWindow;
+import com.baboon.repository.GameRepository;
 import com.baboon.repository.StatsRepository;
+import com.baboon.startup.Warmer;
 import jakarta.inject.Singleton;
 
+import java.time.LocalDate;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Singleton
-public class StatsService {
+public class StatsService implements Warmer {
+
+    // Custom ranges are keyed too; past days' windows are dropped with them
+    private static final int MAX_CACHED_WINDOWS = 32;
+    public static final int MAX_RECENT_GAMES = 50;
+
+    private record RecentGames(long generation, List<GameResult> games) {}
 
     private final StatsRepository statsRepository;
+    private final GameRepository gameRepository;
+    private final AnalyticsStore analytics;
+    // Bumped whenever finished games change; cached snapshots from older generations are stale
+    private final AtomicLong generation = new AtomicLong();
+    private final ConcurrentHashMap<StatsWindow, StatsSnapshot> cache = new ConcurrentHashMap<>();
+    private volatile RecentGames recent = new RecentGames(-1, List.of());
 
-    public StatsService(StatsRepository statsRepository) {
+    public StatsService(StatsRepository statsRepository, GameRepository gameRepository, AnalyticsStore analytics) {
         this.statsRepository = statsRepository;
+        this.gameRepository = gameRepository;
+        this.analytics = analytics;
+    }
+
+    /**
+     * Loads the analytics columns, then caches the windows that @baboon stats
+     * shows by default.
+     */
+    @Override
+    public void warm() {
+        analytics.load();
+        // Anything cached from SQLite while loading is dropped in favour of the columns
+        invalidate();
+        getWeeklyStats();
+        getAllTimeStats();
     }
 
     public Map<String, List<Map<String, Object>>> getWeeklyStats() {
-        return getStats(false);
+        return getStats(StatsWindow.weekly(LocalDate.now())).getRows();
     }
 
     public Map<String, List<Map<String, Object>>> getAllTimeStats() {
-        return getStats(true);
+        return getStats(StatsWindow.allTime()).getRows();
     }
 
-    public void resetAll() {
-        statsRepository.resetAll();
+    /**
+     * Windows are fixed day ranges, so a snapshot only goes stale when a game
+     * completes; a new day yields a new window key instead.
+     */
+    public StatsSnapshot getStats(StatsWindow window) {
+        StatsSnapshot cached = cache.get(window);
+        if (cached != null && cached.isValid(generation.get())) {
+            return cached;
+        }
+
+        // Read the generation first so a game finishing mid-query invalidates this result
+        long current = generation.get();
+        Map<String, List<Map<String, Object>>> stats;
+        if (analytics.isLoaded()) {
+            stats = analytics.getStats(window);
+        } else {
+            // Only until the columns are loaded at startup, e.g. for an early API request
+            stats = new LinkedHashMap<>();
+            stats.put("Rankings", statsRepository.getPlayerStats(window));
+            stats.put("Top Scorers", statsRepository.getForwardStats(window));
+            stats.put("Goalies", statsRepository.getGoalieStats(window));
+        }
+
+        StatsSnapshot snapshot = new StatsSnapshot(window, current, stats);
+        if (cache.size() >= MAX_CACHED_WINDOWS) {
+            cache.clear();
+        }
+        cache.put(window, snapshot);
+        return snapshot;
+    }
+
+    /**
+     * The last {@code limit} completed games, newest first, capped at
+     * {@link #MAX_RECENT_GAMES}. Cached like the stats windows.
+     */
+    public List<GameResult> getRecentGames(int limit) {
+        RecentGames cached = recent;
+        if (cached.generation() != generation.get()) {
+            long current = generation.get();
+            cached = new RecentGames(current, List.copyOf(gameRepository.findRecentResults(MAX_RECENT_GAMES)));
+            recent = cached;
+        }
+        List<GameResult> games = cached.games();
+        return games.subList(0, Math.min(Math.max(limit, 0), games.size()));
     }
 
-    private Map<String, List<Map<String, Object>>> getStats(boolean allTime) {
-        Map<String, List<Map<String, Object>>> stats = new LinkedHashMap<>();
-        stats.put("Rankings", statsRepository.getPlayerStats(allTime));
-        stats.put("Top Scorers", statsRepository.getForwardStats(allTime));
-        stats.put("Goalies", statsRepository.getGoalieStats(allTime));
-        return stats;
+    /**
+     * Adds a just-completed game to the analytics columns and drops cached stats.
+     */
+    public void recordGame(GameResult result) {
+        analytics.append(result);
+        invalidate();
+    }
+
+    /**
+     * Applies display name changes keyed by Slack user id; cached stats rows carry names.
+     */
+    public void playersRenamed(Map<String, String> displayNames) {
+        analytics.rename(displayNames);
+        invalidate();
+    }
+
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    public void resetAll() {
+        statsRepository.resetAll();
+        analytics.reset();
+        invalidate();
     }
 }
@@ -0,0 +1,32 @@
+package com.baboon.service;
+
+import com.baboon.model.StatsWindow;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stats rows for one window as of a stats generation, so repeat requests
+ * reuse them until a game completes.
+ */
+public class StatsSnapshot {
+
+    private final StatsWindow window;
+    private final long generation;
+    private final Map<String, List<Map<String, Object>>> rows;
+
+    public StatsSnapshot(StatsWindow window, long generation,
+                         Map<String, List<Map<String, Object>>> rows) {
+        this.window = window;
+        this.generation = generation;
+        this.rows = rows;
+    }
+
+    public StatsWindow getWindow() { return window; }
+    public long getGeneration() { return generation; }
+    public Map<String, List<Map<String, Object>>> getRows() { return rows; }
+
+    public boolean isValid(long currentGeneration) {
+        return generation == currentGeneration;
+    }
+}
@@ -0,0 +1,220 @@
+package com.baboon.service;
+
+import com.baboon.model.LobbyState;
+import com.baboon.model.PlayerRating;
+import com.baboon.model.PositionHistory;
+import jakarta.inject.Singleton;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Picks the fairest team and position assignment for a pool of players.
+ * <p>
+ * Players fill slots in groups of four per game: blue goalie, blue forward,
+ * red goalie, red forward. A game costs the rating gap between its teams
+ * plus a penalty for each player put in a position they rarely play. Four
+ * players are solved exactly by trying every arrangement. Larger pools start
+ * from a snake draft by rating, then alternate swapping players between games
+ * and re-arranging each game exactly, until neither step helps. The solver
+ * works on primitive arrays sized up front, so the search loop does not
+ * allocate.
+ */
+@Singleton
+public class TeamBalancer {
+
+    // Rating points one full position misfit is worth
+    static final double POSITION_WEIGHT = 40;
+    private static final int MAX_PASSES = 8;
+
+    // All 24 orderings of four slots, flattened
+    private static final int[] PERMUTATIONS = permutations();
+
+    private final AnalyticsStore analytics;
+    private final RatingService ratingService;
+
+    public TeamBalancer(AnalyticsStore analytics, RatingService ratingService) {
+        this.analytics = analytics;
+        this.ratingService = ratingService;
+    }
+
+    /**
+     * Returns the lobby player indexes in slot order, or null unless the lobby
+     * holds a multiple of four players.
+     */
+    public int[] balance(LobbyState lobby) {
+        List<LobbyState.LobbyPlayer> players = lobby.getPlayers();
+        int n = players.size();
+        if (n == 0 || n % 4 != 0) return null;
+
+        Map<String, PositionHistory> history = analytics.findPositionHistory(
+                players.stream().map(LobbyState.LobbyPlayer::getUserId).toList());
+        double[] ratings = new double[n];
+        double[] goalieShares = new double[n];
+        for (int i = 0; i < n; i++) {
+            PositionHistory h = history.get(players.get(i).getUserId());
+            PlayerRating rating = h != null ? ratingService.getRating(h.playerId()) : null;
+            ratings[i] = rating != null ? rating.rating() : RatingService.INITIAL_RATING;
+            goalieShares[i] = h != null ? h.goalieShare() : 0.5;
+        }
+
+        int[] slots = new int[n];
+        solve(ratings, goalieShares, slots);
+        return slots;
+    }
+
+    /**
+     * Fills slots with player indexes and returns the total cost. The number of
+     * players must be a positive multiple of four.
+     */
+    public static double solve(double[] ratings, double[] goalieShares, int[] slots) {
+        int n = ratings.length;
+        if (n == 0 || n % 4 != 0 || slots.length != n) {
+            throw new IllegalArgumentException("Players must be a positive multiple of four");
+        }
+        int games = n / 4;
+        if (games == 1) {
+            for (int i = 0; i < 4; i++) slots[i] = i;
+            return arrange(ratings, goalieShares, slots, 0);
+        }
+
+        snakeDraft(ratings, slots, games);
+        double[] costs = new double[games];
+        for (int g = 0; g < games; g++) {
+            costs[g] = arrange(ratings, goalieShares, slots, g * 4);
+        }
+
+        for (int pass = 0; pass < MAX_PASSES; pass++) {
+            boolean improved = false;
+            // Swap players between games, each taking the other's slot
+            for (int i = 0; i < n; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    int gi = i / 4;
+                    int gj = j / 4;
+                    if (gi == gj) continue;
+
+                    swap(slots, i, j);
+                    double ci = costAt(ratings, goalieShares, slots, gi * 4);
+                    double cj = costAt(ratings, goalieShares, slots, gj * 4);
+                    if (ci + cj < costs[gi] + costs[gj] - 1e-9) {
+                        costs[gi] = ci;
+                        costs[gj] = cj;
+                        improved = true;
+                    } else {
+                        swap(slots, i, j);
+                    }
+                }
+            }
+            // Then let each game pick its best arrangement for its new players
+            for (int g = 0; g < games; g++) {
+                double cost = arrange(ratings, goalieShares, slots, g * 4);
+                if (cost < costs[g] - 1e-9) improved = true;
+                costs[g] = cost;
+            }
+            if (!improved) break;
+        }
+
+        double total = 0;
+        for (double cost : costs) total += cost;
+        return total;
+    }
+
+    /**
+     * Rearranges the four players at offset into their cheapest slots and returns that cost.
+     */
+    private static double arrange(double[] ratings, double[] goalieShares, int[] slots, int offset) {
+        int p0 = slots[offset];
+        int p1 = slots[offset + 1];
+        int p2 = slots[offset + 2];
+        int p3 = slots[offset + 3];
+        double best = Double.MAX_VALUE;
+        int bestPermutation = 0;
+        for (int p = 0; p < PERMUTATIONS.length; p += 4) {
+            double cost = cost(ratings, goalieShares,
+                    pick(PERMUTATIONS[p], p0, p1, p2, p3),
+                    pick(PERMUTATIONS[p + 1], p0, p1, p2, p3),
+                    pick(PERMUTATIONS[p + 2], p0, p1, p2, p3),
+                    pick(PERMUTATIONS[p + 3], p0, p1, p2, p3));
+            if (cost < best) {
+                best = cost;
+                bestPermutation = p;
+            }
+        }
+        for (int k = 0; k < 4; k++) {
+            slots[offset + k] = pick(PERMUTATIONS[bestPermutation + k], p0, p1, p2, p3);
+        }
+        return best;
+    }
+
+    private static double costAt(double[] ratings, double[] goalieShares, int[] slots, int offset) {
+        return cost(ratings, goalieShares, slots[offset], slots[offset + 1], slots[offset + 2], slots[offset + 3]);
+    }
+
+    private static void swap(int[] slots, int i, int j) {
+        int player = slots[i];
+        slots[i] = slots[j];
+        slots[j] = player;
+    }
+
+    private static double cost(double[] ratings, double[] goalieShares,
+                               int blueGoalie, int blueForward, int redGoalie, int redForward) {
+        double gap = Math.abs(ratings[blueGoalie] + ratings[blueForward]
+                - ratings[redGoalie] - ratings[redForward]);
+        double misfit = (1 - goalieShares[blueGoalie]) + goalieShares[blueForward]
+                + (1 - goalieShares[redGoalie]) + goalieShares[redForward];
+        return gap + POSITION_WEIGHT * misfit;
+    }
+
+    private static int pick(int k, int p0, int p1, int p2, int p3) {
+        return switch (k) {
+            case 0 -> p0;
+            case 1 -> p1;
+            case 2 -> p2;
+            default -> p3;
+        };
+    }
+
+    /**
+     * Deals players to games strongest first, reversing direction each round.
+     */
+    private static void snakeDraft(double[] ratings, int[] slots, int games) {
+        int n = ratings.length;
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        // Insertion sort by rating, descending; pools are small
+        for (int i = 1; i < n; i++) {
+            int player = order[i];
+            int j = i - 1;
+            while (j >= 0 && ratings[order[j]] < ratings[player]) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = player;
+        }
+        for (int i = 0; i < n; i++) {
+            int round = i / games;
+            int column = i % games;
+            int game = round % 2 == 0 ? column : games - 1 - column;
+            slots[game * 4 + round] = order[i];
+        }
+    }
+
+    private static int[] permutations() {
+        int[] result = new int[24 * 4];
+        int p = 0;
+        for (int a = 0; a < 4; a++) {
+            for (int b = 0; b < 4; b++) {
+                if (b == a) continue;
+                for (int c = 0; c < 4; c++) {
+                    if (c == a || c == b) continue;
+                    int d = 6 - a - b - c;
+                    result[p++] = a;
+                    result[p++] = b;
+                    result[p++] = c;
+                    result[p++] = d;
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,203 @@
+package com.baboon.slack;
+
+import com.baboon.config.DisplayNameConfig;
+import com.baboon.config.SlackConfig;
+import com.baboon.model.Player;
+import com.baboon.repository.PlayerRepository;
+import com.baboon.service.StatsService;
+import com.baboon.startup.Warmer;
+import com.slack.api.Slack;
+import com.slack.api.methods.MethodsClient;
+import com.slack.api.methods.SlackApiException;
+import com.slack.api.methods.response.users.UsersListResponse;
+import com.slack.api.model.User;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded, TTL-based cache of Slack display names, backed by the players table.
+ * Warmed at startup and refreshed in the background with a paged users.list
+ * sweep, which also writes renamed players back to the database. Only names
+ * that are in neither the cache nor the database cost a users.info call.
+ */
+@Singleton
+public class DisplayNameCache implements Warmer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DisplayNameCache.class);
+    private static final int PAGE_SIZE = 200;
+    // Used when a 429 carries no usable Retry-After header
+    private static final long DEFAULT_RETRY_AFTER_SECONDS = 30;
+
+    private record Entry(String displayName, Instant expiresAt) {}
+
+    private final PlayerRepository playerRepository;
+    private final StatsService statsService;
+    private final MethodsClient client;
+    private final DisplayNameConfig config;
+    private final Map<String, Entry> entries;
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "display-name-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public DisplayNameCache(PlayerRepository playerRepository, StatsService statsService, Slack slack,
+                            SlackConfig slackConfig, DisplayNameConfig config) {
+        this.playerRepository = playerRepository;
+        this.statsService = statsService;
+        this.client = slack.methods(slackConfig.getBotToken());
+        this.config = config;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > config.getMaxSize();
+            }
+        };
+    }
+
+    @Override
+    public void warm() {
+        // Known players are served from memory straight away; the sweep catches renames
+        for (Player player : playerRepository.findAll()) {
+            put(player.getSlackUserId(), player.getDisplayName());
+        }
+        long intervalMs = config.getRefreshInterval().toMillis();
+        refresher.scheduleWithFixedDelay(this::refreshQuietly, 0, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public String get(String userId) {
+        String cached = lookup(userId);
+        if (cached != null) return cached;
+
+        Optional<Player> player = playerRepository.findBySlackUserId(userId);
+        if (player.isPresent()) {
+            put(userId, player.get().getDisplayName());
+            return player.get().getDisplayName();
+        }
+
+        String fetched = fetch(userId);
+        if (fetched != null) {
+            put(userId, fetched);
+            return fetched;
+        }
+        return userId;
+    }
+
+    @PreDestroy
+    public void close() {
+        refresher.shutdownNow();
+    }
+
+    private synchronized String lookup(String userId) {
+        Entry entry = entries.get(userId);
+        if (entry == null) return null;
+        if (entry.expiresAt().isBefore(Instant.now())) {
+            entries.remove(userId);
+            return null;
+        }
+        return entry.displayName();
+    }
+
+    private synchronized void put(String userId, String displayName) {
+        entries.put(userId, new Entry(displayName, Instant.now().plus(config.getTtl())));
+    }
+
+    private String fetch(String userId) {
+        try {
+            var userInfo = client.usersInfo(r -> r.user(userId));
+            if (userInfo.isOk()) {
+                return displayName(userInfo.getUser());
+            }
+        } catch (Exception e) {
+            LOG.warn("Failed to get user info for {}", userId, e);
+        }
+        return null;
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            LOG.warn("Failed to refresh display names", e);
+        }
+    }
+
+    private void refresh() throws IOException, SlackApiException, InterruptedException {
+        Map<String, String> known = new HashMap<>();
+        for (Player player : playerRepository.findAll()) {
+            known.put(player.getSlackUserId(), player.getDisplayName());
+        }
+
+        Map<String, String> renamed = new HashMap<>();
+        int users = 0;
+        String cursor = null;
+        do {
+            UsersListResponse page = listUsers(cursor);
+            if (!page.isOk()) {
+                LOG.warn("users.list failed: {}", page.getError());
+                break;
+            }
+            for (User user : page.getMembers()) {
+                if (user.isDeleted() || user.isBot()) continue;
+                String name = displayName(user);
+                String stored = known.get(user.getId());
+                if (stored != null && !stored.equals(name)) {
+                    renamed.put(user.getId(), name);
+                }
+                put(user.getId(), name);
+                users++;
+            }
+            cursor = page.getResponseMetadata() != null ? page.getResponseMetadata().getNextCursor() : null;
+        } while (cursor != null && !cursor.isEmpty());
+
+        if (!renamed.isEmpty()) {
+            playerRepository.updateDisplayNames(renamed);
+            statsService.playersRenamed(renamed);
+        }
+        // Touch players last so a small cache evicts other workspace members first
+        known.forEach((userId, name) -> put(userId, renamed.getOrDefault(userId, name)));
+        LOG.info("Refreshed display names: {} users, {} players renamed", users, renamed.size());
+    }
+
+    private UsersListResponse listUsers(String cursor)
+            throws IOException, SlackApiException, InterruptedException {
+        while (true) {
+            try {
+                return client.usersList(r -> r.limit(PAGE_SIZE).cursor(cursor));
+            } catch (SlackApiException e) {
+                if (e.getResponse().code() != 429) throw e;
+                long seconds = parseRetryAfter(e.getResponse().header("Retry-After"));
+                LOG.info("users.list rate limited, retrying in {}s", seconds);
+                Thread.sleep(TimeUnit.SECONDS.toMillis(seconds));
+            }
+        }
+    }
+
+    private static long parseRetryAfter(String header) {
+        try {
+            return header != null ? Math.max(1, Long.parseLong(header.trim())) : DEFAULT_RETRY_AFTER_SECONDS;
+        } catch (NumberFormatException e) {
+            return DEFAULT_RETRY_AFTER_SECONDS;
+        }
+    }
+
+    private static String displayName(User user) {
+        String displayName = user.getProfile() != null ? user.getProfile().getDisplayName() : null;
+        if (displayName == null || displayName.isBlank()) {
+            displayName = user.getName();
+        }
+        return displayName;
+    }
+}
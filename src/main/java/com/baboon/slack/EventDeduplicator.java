@@ -0,0 +1,68 @@
+package com.baboon.slack;
+
+import com.slack.api.bolt.middleware.Middleware;
+import com.slack.api.bolt.middleware.MiddlewareChain;
+import com.slack.api.bolt.request.Request;
+import com.slack.api.bolt.request.builtin.BlockActionRequest;
+import com.slack.api.bolt.request.builtin.EventRequest;
+import com.slack.api.bolt.response.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.inject.Singleton;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Acks and drops events and button clicks that were already handled. Slack
+ * redelivers an envelope whose ack it missed, possibly on another of our
+ * socket connections, so the same event_id or trigger_id can arrive twice.
+ * Ids are remembered in a bounded LRU, sized well past Slack's retry window.
+ */
+@Singleton
+public class EventDeduplicator implements Middleware {
+
+    private static final int MAX_REMEMBERED = 10_000;
+    private static final Pattern EVENT_ID = Pattern.compile("\"event_id\"\\s*:\\s*\"([^\"]+)\"");
+
+    private final Map<String, Boolean> seen = new LinkedHashMap<>(1024, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > MAX_REMEMBERED;
+        }
+    };
+    private final Counter duplicates;
+
+    public EventDeduplicator(MeterRegistry registry) {
+        this.duplicates = Counter.builder("baboon.slack.duplicates")
+                .description("Slack deliveries dropped because their id was already handled")
+                .register(registry);
+    }
+
+    @Override
+    public Response apply(Request req, Response resp, MiddlewareChain chain) throws Exception {
+        String id = idOf(req);
+        if (id != null && !firstDelivery(id)) {
+            duplicates.increment();
+            return Response.ok();
+        }
+        return chain.next(req);
+    }
+
+    private synchronized boolean firstDelivery(String id) {
+        return seen.putIfAbsent(id, Boolean.TRUE) == null;
+    }
+
+    private static String idOf(Request<?> req) {
+        if (req instanceof EventRequest event) {
+            Matcher matcher = EVENT_ID.matcher(event.getRequestBodyAsString());
+            return matcher.find() ? matcher.group(1) : null;
+        }
+        if (req instanceof BlockActionRequest action) {
+            return action.getPayload().getTriggerId();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,42 @@
+package com.baboon.slack;
+
+import com.baboon.model.LobbyState;
+import com.baboon.slack.view.LobbyView;
+import com.slack.api.methods.MethodsClient;
+import com.slack.api.methods.SlackApiException;
+import com.slack.api.methods.response.chat.ChatPostMessageResponse;
+import jakarta.inject.Singleton;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Posts a lobby that matchmaking filled from the queue, mentioning the players
+ * so they know they are up.
+ */
+@Singleton
+public class MatchAnnouncer {
+
+    public void announce(MethodsClient client, String channelId, LobbyState lobby)
+            throws IOException, SlackApiException {
+        if (lobby == null) return;
+
+        List<String> mentions = lobby.getPlayers().stream()
+                .map(p -> "<@" + p.getUserId() + ">")
+                .toList();
+        String names = mentions.size() > 1
+                ? mentions.subList(0, mentions.size() - 1).stream().collect(Collectors.joining(", "))
+                        + " and " + mentions.get(mentions.size() - 1)
+                : String.join("", mentions);
+        String text = String.format(":bell: You're up, %s! Hit *Start Game* when ready.", names);
+
+        ChatPostMessageResponse response = client.chatPostMessage(r -> r
+                .channel(channelId)
+                .text(text)
+                .attachments(LobbyView.build(lobby)));
+        if (response.isOk()) {
+            lobby.setMessageTs(response.getTs());
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.baboon.slack;
+
+import com.baboon.config.MessageUpdateConfig;
+import com.slack.api.methods.MethodsClient;
+import com.slack.api.methods.SlackApiException;
+import com.slack.api.methods.response.chat.ChatUpdateResponse;
+import com.slack.api.model.Attachment;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces chat.update calls. Only the newest render per message is kept, and
+ * each channel sends through its own token bucket. A 429 blocks the channel
+ * for Retry-After seconds; the rejected render is retried unless a newer one
+ * arrived or the message was cancelled in the meantime.
+ */
+@Singleton
+public class MessageUpdateScheduler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MessageUpdateScheduler.class);
+
+    private record PendingUpdate(MethodsClient client, String channelId, String ts,
+                                 String text, List<Attachment> attachments) {}
+
+    private final ConcurrentHashMap<String, ChannelBucket> buckets = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "slack-update-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final double tokensPerNano;
+    private final int burst;
+
+    public MessageUpdateScheduler(MessageUpdateConfig config) {
+        this.tokensPerNano = config.getRatePerSecond() / TimeUnit.SECONDS.toNanos(1);
+        this.burst = config.getBurst();
+    }
+
+    /**
+     * Schedules an update of a message, replacing any render still waiting for it.
+     */
+    public void update(MethodsClient client, String channelId, String ts, String text, List<Attachment> attachments) {
+        ChannelBucket bucket = buckets.computeIfAbsent(channelId, id -> new ChannelBucket(burst));
+        synchronized (bucket) {
+            bucket.pending.put(ts, new PendingUpdate(client, channelId, ts, text, attachments));
+            if (!bucket.draining) {
+                bucket.draining = true;
+                senders.execute(() -> drain(bucket));
+            }
+        }
+    }
+
+    /**
+     * Drops any waiting render for a message, e.g. before the message is deleted.
+     */
+    public void cancel(String channelId, String ts) {
+        ChannelBucket bucket = buckets.get(channelId);
+        if (bucket == null) return;
+        synchronized (bucket) {
+            bucket.pending.remove(ts);
+            // A render already on the wire must not come back after a 429
+            if (ts.equals(bucket.sending)) bucket.sendingCancelled = true;
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        timer.shutdownNow();
+        senders.shutdown();
+    }
+
+    private void drain(ChannelBucket bucket) {
+        while (true) {
+            PendingUpdate next;
+            synchronized (bucket) {
+                bucket.sending = null;
+                if (bucket.pending.isEmpty()) {
+                    bucket.draining = false;
+                    return;
+                }
+                long waitNanos = bucket.reserve(System.nanoTime(), tokensPerNano, burst);
+                if (waitNanos > 0) {
+                    timer.schedule(() -> senders.execute(() -> drain(bucket)), waitNanos, TimeUnit.NANOSECONDS);
+                    return;
+                }
+                Iterator<PendingUpdate> it = bucket.pending.values().iterator();
+                next = it.next();
+                it.remove();
+                bucket.sending = next.ts();
+                bucket.sendingCancelled = false;
+            }
+            send(bucket, next);
+        }
+    }
+
+    private void send(ChannelBucket bucket, PendingUpdate update) {
+        try {
+            ChatUpdateResponse response = update.client().chatUpdate(r -> r
+                    .channel(update.channelId())
+                    .ts(update.ts())
+                    .text(update.text())
+                    .attachments(update.attachments()));
+            if (!response.isOk()) {
+                LOG.warn("chat.update failed in {}: {}", update.channelId(), response.getError());
+            }
+        } catch (SlackApiException e) {
+            if (e.getResponse().code() != 429) {
+                LOG.error("chat.update failed in {}", update.channelId(), e);
+                return;
+            }
+            long retryAfter = parseRetryAfter(e.getResponse().header("Retry-After"));
+            LOG.warn("chat.update rate limited in {}, retrying in {}s", update.channelId(), retryAfter);
+            synchronized (bucket) {
+                bucket.blockedUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(retryAfter);
+                if (!bucket.sendingCancelled) {
+                    bucket.pending.putIfAbsent(update.ts(), update);
+                }
+            }
+        } catch (IOException e) {
+            LOG.error("chat.update failed in {}", update.channelId(), e);
+        }
+    }
+
+    private static long parseRetryAfter(String header) {
+        try {
+            return header != null ? Math.max(1, Long.parseLong(header.trim())) : 1;
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+
+    private static final class ChannelBucket {
+        private final LinkedHashMap<String, PendingUpdate> pending = new LinkedHashMap<>();
+        private boolean draining;
+        // The message whose render is being sent, and whether it was cancelled meanwhile
+        private String sending;
+        private boolean sendingCancelled;
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+        private long blockedUntil = refilledAt;
+
+        ChannelBucket(int burst) {
+            this.tokens = burst;
+        }
+
+        /**
+         * Takes a token and returns 0, or returns how long to wait for one.
+         */
+        long reserve(long now, double tokensPerNano, int burst) {
+            if (now - blockedUntil < 0) return blockedUntil - now;
+            tokens = Math.min(burst, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return Math.max(1, (long) ((1 - tokens) / tokensPerNano));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.baboon.slack;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.slack.api.util.http.listener.HttpResponseListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.inject.Singleton;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every Slack Web API call made through the shared {@link com.slack.api.Slack}
+ * client, tagged by API method, HTTP status and the ok flag of the body, so
+ * rate limiting (429) and ok=false errors show up next to latency.
+ */
+@Singleton
+public class SlackApiMetrics extends HttpResponseListener {
+
+    private final MeterRegistry registry;
+
+    public SlackApiMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void accept(State state) {
+        Response response = state.getResponse();
+        List<String> path = response.request().url().pathSegments();
+        String method = path.isEmpty() ? "unknown" : path.get(path.size() - 1);
+        boolean ok = response.code() == 200 && isOk(state.getParsedResponseBody());
+
+        Timer.builder("baboon.slack.api")
+                .tag("method", method)
+                .tag("status", String.valueOf(response.code()))
+                .tag("ok", String.valueOf(ok))
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(response.receivedResponseAtMillis() - response.sentRequestAtMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Reads the top-level ok flag wherever it sits in the body, skipping the
+     * other fields without building them.
+     */
+    static boolean isOk(String body) {
+        if (body == null) return false;
+        try (JsonReader reader = new JsonReader(new StringReader(body))) {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) return false;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (reader.nextName().equals("ok")) {
+                    return reader.peek() == JsonToken.BOOLEAN && reader.nextBoolean();
+                }
+                reader.skipValue();
+            }
+            return false;
+        } catch (IOException | IllegalStateException e) {
+            // Not JSON, or not shaped like a Slack response
+            return false;
+        }
+    }
+}
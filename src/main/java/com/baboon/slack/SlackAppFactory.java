@@ -4,38 +4,52 @@ import com.baboon.config.SlackConfig;
 import com.baboon.slack.handler.AppMentionHandler;
 import com.baboon.slack.handler.GameActionHandler;
 import com.baboon.slack.handler.LobbyActionHandler;
+import com.slack.api.Slack;
 import com.slack.api.bolt.App;
 import com.slack.api.bolt.AppConfig;
-import com.slack.api.bolt.socket_mode.SocketModeApp;
 import com.slack.api.model.event.AppMentionEvent;
 import io.micronaut.context.annotation.Bean;
 import io.micronaut.context.annotation.Factory;
-import io.micronaut.context.event.ApplicationEventListener;
-import io.micronaut.runtime.event.ApplicationStartupEvent;
 import jakarta.inject.Singleton;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import java.util.regex.Pattern;
 
 @Factory
 public class SlackAppFactory {
 
-    private static final Logger LOG = LoggerFactory.getLogger(SlackAppFactory.class);
+    /**
+     * Web API client shared by Bolt and the display-name sweep, so every call is metered.
+     */
+    @Bean
+    @Singleton
+    public Slack slack(SlackConfig config, SlackApiMetrics apiMetrics) {
+        com.slack.api.SlackConfig slackConfig = new com.slack.api.SlackConfig();
+        if (config.getApiUrl() != null) {
+            slackConfig.setMethodsEndpointUrlPrefix(config.getApiUrl());
+        }
+        slackConfig.getHttpClientResponseHandlers().add(apiMetrics);
+        return Slack.getInstance(slackConfig);
+    }
 
     @Bean
     @Singleton
     public App slackApp(SlackConfig config,
+                        Slack slack,
+                        EventDeduplicator deduplicator,
                         AppMentionHandler mentionHandler,
                         LobbyActionHandler lobbyActionHandler,
                         GameActionHandler gameActionHandler) {
         AppConfig appConfig = AppConfig.builder()
+                .slack(slack)
                 .singleTeamBotToken(config.getBotToken())
                 .signingSecret(config.getSigningSecret())
                 .build();
 
         App app = new App(appConfig);
 
+        // Redeliveries can land on any of the socket connections
+        app.use(deduplicator);
+
         // Register event handler
         app.event(AppMentionEvent.class, mentionHandler);
 
@@ -43,8 +57,10 @@ public class SlackAppFactory {
         app.blockAction("lobby_switch_blue", (req, ctx) -> lobbyActionHandler.handleSwitchPositions(req, ctx));
         app.blockAction("lobby_switch_red", (req, ctx) -> lobbyActionHandler.handleSwitchPositions(req, ctx));
         app.blockAction("lobby_shuffle", (req, ctx) -> lobbyActionHandler.handleShuffle(req, ctx));
+        app.blockAction("lobby_balance", (req, ctx) -> lobbyActionHandler.handleBalance(req, ctx));
         app.blockAction("lobby_cancel", (req, ctx) -> lobbyActionHandler.handleCancel(req, ctx));
         app.blockAction("lobby_start", (req, ctx) -> lobbyActionHandler.handleStart(req, ctx));
+        app.blockAction("queue_leave", (req, ctx) -> lobbyActionHandler.handleLeaveQueue(req, ctx));
 
         // Register game action handlers
         app.blockAction(Pattern.compile("game_goal_.+"), (req, ctx) -> gameActionHandler.handleGoal(req, ctx));
@@ -53,20 +69,4 @@ public class SlackAppFactory {
 
         return app;
     }
-
-    @Bean
-    @Singleton
-    public ApplicationEventListener<ApplicationStartupEvent> slackStartupListener(App app, SlackConfig config) {
-        return event -> {
-            try {
-                LOG.info("Starting Slack Socket Mode connection...");
-                SocketModeApp socketModeApp = new SocketModeApp(config.getAppToken(), app);
-                socketModeApp.startAsync();
-                LOG.info("Slack bot connected successfully via Socket Mode!");
-            } catch (Exception e) {
-                LOG.error("Failed to start Slack Socket Mode", e);
-                throw new RuntimeException("Failed to start Slack bot", e);
-            }
-        };
-    }
 }
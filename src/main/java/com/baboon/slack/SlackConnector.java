@@ -0,0 +1,216 @@
+package com.baboon.slack;
+
+import com.baboon.config.SlackConfig;
+import com.slack.api.Slack;
+import com.slack.api.bolt.App;
+import com.slack.api.bolt.socket_mode.SocketModeApp;
+import com.slack.api.socket_mode.SocketModeClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.annotation.Requires;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of Socket Mode connections to Slack, opened by the startup
+ * orchestrator. Slack spreads envelopes across an app's open connections, so
+ * a stalled or reconnecting socket only delays its own share. A health check
+ * pings each connection and reopens failed ones with exponential backoff;
+ * redeliveries across connections are dropped by {@link EventDeduplicator}.
+ * Only created when slack.mode binds to {@link SlackConfig.Mode#SOCKET}.
+ */
+@Singleton
+@Requires(condition = SlackModeCondition.Socket.class)
+public class SlackConnector {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SlackConnector.class);
+    private static final long BASE_BACKOFF_MS = 1_000;
+
+    private final App app;
+    private final Slack slack;
+    private final SlackConfig config;
+    private final MeterRegistry registry;
+    private final List<Connection> connections = new ArrayList<>();
+    private final ScheduledExecutorService monitor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "socket-health");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SlackConnector(App app, Slack slack, SlackConfig config, MeterRegistry registry) {
+        this.app = app;
+        this.slack = slack;
+        this.config = config;
+        this.registry = registry;
+    }
+
+    /**
+     * Opens every connection. Fails only if none of them could be opened; the
+     * rest are retried by the health check.
+     */
+    public synchronized void connect() {
+        int count = Math.max(1, config.getSocketConnections());
+        LOG.info("Starting {} Slack Socket Mode connection(s)...", count);
+        for (int i = 0; i < count; i++) {
+            Connection connection = new Connection(i);
+            connections.add(connection);
+            try {
+                connection.open();
+            } catch (Exception e) {
+                LOG.warn("Failed to open Socket Mode connection #{}", i, e);
+                connection.failed();
+            }
+        }
+        if (connections.stream().noneMatch(Connection::isUp)) {
+            throw new RuntimeException("Failed to start Slack bot: no Socket Mode connection could be opened");
+        }
+
+        long intervalMs = config.getHealthCheckInterval().toMillis();
+        monitor.scheduleWithFixedDelay(this::checkQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        LOG.info("Slack bot connected successfully via Socket Mode! ({} of {} up)",
+                connections.stream().filter(Connection::isUp).count(), count);
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        monitor.shutdownNow();
+        for (Connection connection : connections) {
+            connection.close();
+        }
+    }
+
+    private synchronized void checkQuietly() {
+        for (Connection connection : connections) {
+            try {
+                connection.check();
+            } catch (Exception e) {
+                LOG.warn("Health check failed for Socket Mode connection #{}", connection.id, e);
+            }
+        }
+        if (LOG.isDebugEnabled()) {
+            for (Connection connection : connections) {
+                LOG.debug("Socket Mode connection #{}: {}, {} envelopes, {} reconnects",
+                        connection.id, connection.isUp() ? "up" : "down",
+                        (long) connection.envelopes.count(), (long) connection.reconnects.count());
+            }
+        }
+    }
+
+    /**
+     * One socket with its own client; envelopes are handed to the shared Bolt app.
+     */
+    private final class Connection {
+
+        private final int id;
+        private final Counter envelopes;
+        private final Counter reconnects;
+        private final Counter closes;
+        private final AtomicInteger up = new AtomicInteger();
+        private SocketModeClient client;
+        private SocketModeApp socketModeApp;
+        private int failures;
+        private long nextAttemptAt;
+
+        Connection(int id) {
+            this.id = id;
+            String tag = String.valueOf(id);
+            this.envelopes = Counter.builder("baboon.slack.socket.envelopes")
+                    .description("Envelopes received on a Socket Mode connection")
+                    .tag("connection", tag)
+                    .register(registry);
+            this.reconnects = Counter.builder("baboon.slack.socket.reconnects")
+                    .description("Reconnects started by the health check")
+                    .tag("connection", tag)
+                    .register(registry);
+            this.closes = Counter.builder("baboon.slack.socket.closes")
+                    .description("Websocket closes, including Slack's routine refreshes")
+                    .tag("connection", tag)
+                    .register(registry);
+            Gauge.builder("baboon.slack.socket.up", up, AtomicInteger::get)
+                    .tag("connection", tag)
+                    .register(registry);
+        }
+
+        void open() throws Exception {
+            client = slack.socketMode(config.getAppToken());
+            client.addWebSocketMessageListener(message -> {
+                // Skip hello and disconnect notices; every delivery carries an envelope id
+                if (message.contains("\"envelope_id\"")) {
+                    envelopes.increment();
+                }
+            });
+            client.addWebSocketCloseListener((code, reason) -> {
+                closes.increment();
+                LOG.info("Socket Mode connection #{} closed ({} {})", id, code, reason);
+            });
+            socketModeApp = new SocketModeApp(client, app);
+            socketModeApp.startAsync();
+            up.set(1);
+            failures = 0;
+        }
+
+        boolean isUp() {
+            return up.get() == 1;
+        }
+
+        void check() {
+            boolean healthy = client != null && client.verifyConnection();
+            if (healthy) {
+                up.set(1);
+                failures = 0;
+                return;
+            }
+            up.set(0);
+            if (System.currentTimeMillis() < nextAttemptAt) return;
+
+            reconnects.increment();
+            try {
+                if (client == null) {
+                    open();
+                } else {
+                    client.connectToNewEndpoint();
+                    up.set(1);
+                    failures = 0;
+                }
+                LOG.info("Socket Mode connection #{} reconnected ({} reconnects so far)",
+                        id, (long) reconnects.count());
+            } catch (Exception e) {
+                failed();
+                LOG.warn("Socket Mode connection #{} could not reconnect, retrying in {} ms",
+                        id, nextAttemptAt - System.currentTimeMillis(), e);
+            }
+        }
+
+        void failed() {
+            up.set(0);
+            failures++;
+            long backoff = Math.min(config.getMaxReconnectBackoff().toMillis(),
+                    BASE_BACKOFF_MS << Math.min(failures - 1, 20));
+            // Jitter so connections that failed together do not retry together
+            nextAttemptAt = System.currentTimeMillis() + backoff / 2
+                    + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+        }
+
+        void close() {
+            try {
+                if (socketModeApp != null) {
+                    socketModeApp.close();
+                }
+            } catch (Exception e) {
+                LOG.warn("Failed to close Socket Mode connection #{}", id, e);
+            }
+            up.set(0);
+        }
+    }
+}
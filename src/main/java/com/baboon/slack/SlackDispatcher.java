@@ -0,0 +1,134 @@
+package com.baboon.slack;
+
+import com.baboon.service.ChannelExecutor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs handler work after the Bolt ack, in the channel's mailbox on
+ * {@link ChannelExecutor}. Tasks for the same channel run one at a time in
+ * arrival order; different channels run concurrently. Until {@link #open()}
+ * is called at startup, tasks are acked but held back, so nothing touches
+ * the database before it is migrated and loaded.
+ */
+@Singleton
+public class SlackDispatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SlackDispatcher.class);
+
+    @FunctionalInterface
+    public interface Task {
+        void run() throws Exception;
+    }
+
+    private final ChannelExecutor channels;
+    private final MeterRegistry registry;
+    private final ConcurrentHashMap<String, Timer> timers = new ConcurrentHashMap<>();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private final List<Runnable> held = new ArrayList<>();
+    private volatile boolean open;
+
+    public SlackDispatcher(ChannelExecutor channels, MeterRegistry registry) {
+        this.channels = channels;
+        this.registry = registry;
+        Gauge.builder("baboon.dispatch.queue.depth", queueDepth, AtomicInteger::get)
+                .description("Handler tasks waiting or running in channel mailboxes")
+                .register(registry);
+    }
+
+    /**
+     * Queues a task behind any earlier tasks for the channel and returns immediately.
+     */
+    public void dispatch(String channelId, String description, Task task) {
+        long enqueuedAt = System.nanoTime();
+        queueDepth.incrementAndGet();
+        Timer timer = timers.computeIfAbsent(description, this::timer);
+        Callable<Void> work = () -> {
+            run(channelId, description, task, enqueuedAt, timer);
+            return null;
+        };
+
+        if (!open) {
+            synchronized (held) {
+                if (!open) {
+                    held.add(() -> channels.submit(channelId, work));
+                    return;
+                }
+            }
+        }
+        channels.submit(channelId, work);
+    }
+
+    /**
+     * Submits the held tasks in arrival order and stops holding new ones.
+     */
+    public void open() {
+        synchronized (held) {
+            if (open) return;
+            // Still under the lock, so no new task can overtake a held one for the same channel
+            held.forEach(Runnable::run);
+            LOG.info("Released {} Slack events held during startup", held.size());
+            held.clear();
+            open = true;
+        }
+    }
+
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    public long getCompletedCount() {
+        return completed.sum();
+    }
+
+    public double getMeanLatencyMillis() {
+        long count = completed.sum();
+        return count == 0 ? 0 : totalLatencyNanos.sum() / (count * 1_000_000.0);
+    }
+
+    public double getMaxLatencyMillis() {
+        return maxLatencyNanos.get() / 1_000_000.0;
+    }
+
+    private void run(String channelId, String description, Task task, long enqueuedAt, Timer timer) {
+        try {
+            task.run();
+        } catch (Exception e) {
+            LOG.error("Error handling {}", description, e);
+        } finally {
+            long latency = System.nanoTime() - enqueuedAt;
+            queueDepth.decrementAndGet();
+            completed.increment();
+            totalLatencyNanos.add(latency);
+            maxLatencyNanos.accumulateAndGet(latency, Math::max);
+            timer.record(latency, TimeUnit.NANOSECONDS);
+            LOG.debug("Handled {} in {} after {} ms", description, channelId, latency / 1_000_000);
+        }
+    }
+
+    /**
+     * Time from dispatch to completion, queueing in the mailbox included.
+     */
+    private Timer timer(String description) {
+        return Timer.builder("baboon.dispatch")
+                .tag("task", description)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -0,0 +1,75 @@
+package com.baboon.slack;
+
+import com.slack.api.bolt.App;
+import com.slack.api.bolt.request.Request;
+import com.slack.api.bolt.request.RequestHeaders;
+import com.slack.api.bolt.response.Response;
+import com.slack.api.bolt.util.SlackRequestParser;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.Body;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Post;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.annotation.ExecuteOn;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Slack Events API endpoint for slack.mode http: events, interactivity and the
+ * url_verification challenge all arrive here. The raw body is handed to the
+ * Bolt {@link App}, whose request verification checks the signature and
+ * timestamp against slack.signing-secret before any handler runs.
+ */
+@Controller("/slack/events")
+@Requires(condition = SlackModeCondition.Http.class)
+public class SlackEventsController {
+
+    private final App app;
+    private final SlackRequestParser parser;
+
+    public SlackEventsController(App app) {
+        this.app = app;
+        this.parser = new SlackRequestParser(app.config());
+        app.start();
+    }
+
+    // Bolt may call auth.test on the first request, so stay off the event loop
+    @Post(consumes = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_FORM_URLENCODED})
+    @ExecuteOn(TaskExecutors.BLOCKING)
+    public HttpResponse<String> handle(HttpRequest<?> request, @Body String body) throws Exception {
+        InetSocketAddress remote = request.getRemoteAddress();
+        String remoteAddress = remote.getAddress() != null ? remote.getAddress().getHostAddress() : remote.getHostString();
+        Request<?> slackRequest = parser.parse(SlackRequestParser.HttpRequest.builder()
+                .requestUri(request.getPath())
+                .queryString(request.getUri().getRawQuery())
+                .headers(new RequestHeaders(request.getHeaders().asMap()))
+                .requestBody(body)
+                .remoteAddress(remoteAddress)
+                .build());
+        if (slackRequest == null) {
+            return HttpResponse.badRequest();
+        }
+
+        Response response = app.run(slackRequest);
+        MutableHttpResponse<String> http = HttpResponse.status(HttpStatus.valueOf(response.getStatusCode()));
+        if (response.getHeaders() != null) {
+            for (Map.Entry<String, List<String>> header : response.getHeaders().entrySet()) {
+                header.getValue().forEach(value -> http.header(header.getKey(), value));
+            }
+        }
+        if (response.getBody() != null) {
+            if (response.getContentType() != null) {
+                http.contentType(response.getContentType());
+            }
+            http.body(response.getBody());
+        }
+        return http;
+    }
+}
@@ -0,0 +1,39 @@
+package com.baboon.slack;
+
+import com.baboon.config.SlackConfig;
+import io.micronaut.context.condition.Condition;
+import io.micronaut.context.condition.ConditionContext;
+import io.micronaut.core.annotation.Introspected;
+
+/**
+ * Registers a Slack ingress only for the slack.mode that {@link SlackConfig}
+ * binds, so the enum's case-insensitive binding decides which one runs and an
+ * invalid value fails at startup instead of leaving the bot deaf.
+ */
+public abstract class SlackModeCondition implements Condition {
+
+    private final SlackConfig.Mode mode;
+
+    protected SlackModeCondition(SlackConfig.Mode mode) {
+        this.mode = mode;
+    }
+
+    @Override
+    public boolean matches(ConditionContext context) {
+        return context.getBean(SlackConfig.class).getMode() == mode;
+    }
+
+    @Introspected
+    public static final class Socket extends SlackModeCondition {
+        public Socket() {
+            super(SlackConfig.Mode.SOCKET);
+        }
+    }
+
+    @Introspected
+    public static final class Http extends SlackModeCondition {
+        public Http() {
+            super(SlackConfig.Mode.HTTP);
+        }
+    }
+}
@@ -1,9 +1,22 @@
 package com.baboon.slack.handler;
 
+import com.baboon.config.MatchmakingConfig;
+import com.baboon.metrics.Instrumented;
 import com.baboon.model.LobbyState;
+import com.baboon.model.PlayerRating;
+import com.baboon.model.StatsWindow;
 import com.baboon.service.GameService;
+import com.baboon.service.HeadToHeadIndex;
 import com.baboon.service.LobbyService;
+import com.baboon.service.MatchmakingService;
+import com.baboon.service.PlayerService;
+import com.baboon.service.RatingService;
 import com.baboon.service.StatsService;
+import com.baboon.service.StatsSnapshot;
+import com.baboon.slack.DisplayNameCache;
+import com.baboon.slack.MatchAnnouncer;
+import com.baboon.slack.MessageUpdateScheduler;
+import com.baboon.slack.SlackDispatcher;
 import com.baboon.slack.view.BusyView;
 import com.baboon.slack.view.LobbyView;
 import com.baboon.slack.view.StatsView;
@@ -13,90 +26,180 @@ import com.slack.api.bolt.handler.BoltEventHandler;
 import com.slack.api.bolt.response.Response;
 import com.slack.api.methods.SlackApiException;
 import com.slack.api.methods.response.chat.ChatPostMessageResponse;
+import com.slack.api.model.Attachment;
 import com.slack.api.model.event.AppMentionEvent;
 import jakarta.inject.Singleton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 @Singleton
+@Instrumented(value = "baboon.slack.handler", slo = 3000)
 public class AppMentionHandler implements BoltEventHandler<AppMentionEvent> {
 
     private static final Pattern USER_MENTION_PATTERN = Pattern.compile("<@([A-Z0-9]+)>");
+    private static final Pattern DATE_RANGE_PATTERN =
+            Pattern.compile("(\\d{4}-\\d{2}-\\d{2})\\s*\\.\\.\\s*(\\d{4}-\\d{2}-\\d{2})");
+
+    private static final int RATINGS_SHOWN = 15;
+    private static final int HEAD_TO_HEAD_SHOWN = 5;
+    private static final int RIVALS_SHOWN = 10;
 
     private static final Logger LOG = LoggerFactory.getLogger(AppMentionHandler.class);
 
     private final LobbyService lobbyService;
     private final GameService gameService;
     private final StatsService statsService;
-
-    public AppMentionHandler(LobbyService lobbyService, GameService gameService, StatsService statsService) {
+    private final RatingService ratingService;
+    private final PlayerService playerService;
+    private final HeadToHeadIndex headToHead;
+    private final MatchmakingService matchmaking;
+    private final MatchmakingConfig matchmakingConfig;
+    private final MatchAnnouncer announcer;
+    private final SlackDispatcher dispatcher;
+    private final MessageUpdateScheduler messageUpdates;
+    private final DisplayNameCache displayNames;
+    // Rendered stats per snapshot; a snapshot replaced after a game completes drops its entry
+    private final Map<StatsSnapshot, List<Attachment>> renderedStats = Collections.synchronizedMap(new WeakHashMap<>());
+
+    public AppMentionHandler(LobbyService lobbyService, GameService gameService, StatsService statsService,
+                             RatingService ratingService, PlayerService playerService, HeadToHeadIndex headToHead,
+                             MatchmakingService matchmaking, MatchmakingConfig matchmakingConfig,
+                             MatchAnnouncer announcer,
+                             SlackDispatcher dispatcher, MessageUpdateScheduler messageUpdates,
+                             DisplayNameCache displayNames) {
         this.lobbyService = lobbyService;
         this.gameService = gameService;
         this.statsService = statsService;
+        this.ratingService = ratingService;
+        this.playerService = playerService;
+        this.headToHead = headToHead;
+        this.matchmaking = matchmaking;
+        this.matchmakingConfig = matchmakingConfig;
+        this.announcer = announcer;
+        this.dispatcher = dispatcher;
+        this.messageUpdates = messageUpdates;
+        this.displayNames = displayNames;
     }
 
     @Override
     public Response apply(EventsApiPayload<AppMentionEvent> payload, EventContext ctx) {
-        try {
-            AppMentionEvent event = payload.getEvent();
-            String text = event.getText().toLowerCase();
-            String channelId = event.getChannel();
-            String userId = event.getUser();
+        AppMentionEvent event = payload.getEvent();
+        String channelId = event.getChannel();
+        dispatcher.dispatch(channelId, "app mention", () -> handleMention(ctx, event));
+        return ctx.ack();
+    }
 
-            LOG.info("Received mention from {} in {}: {}", userId, channelId, text);
+    private void handleMention(EventContext ctx, AppMentionEvent event) throws IOException, SlackApiException {
+        String text = event.getText().toLowerCase();
+        String channelId = event.getChannel();
+        String userId = event.getUser();
 
-            if (text.contains("stats reset")) {
-                return handleStatsReset(ctx, channelId);
-            }
+        LOG.info("Received mention from {} in {}: {}", userId, channelId, text);
 
-            if (text.contains("stats")) {
-                boolean allTime = text.contains("all time") || text.contains("alltime") || text.contains("stats all");
-                return handleStats(ctx, channelId, allTime);
-            }
+        if (text.contains("stats reset")) {
+            handleStatsReset(ctx, channelId);
+            return;
+        }
 
-            if (text.contains("play")) {
-                return handlePlay(ctx, channelId, userId);
-            }
+        if (text.contains("ratings")) {
+            handleRatings(ctx, channelId, userId);
+            return;
+        }
 
-            if (text.contains("add")) {
-                return handleAdd(ctx, channelId, userId, event.getText());
+        if (text.contains("rivals")) {
+            handleRivals(ctx, channelId);
+            return;
+        }
+
+        if (text.contains("stats")) {
+            String mentioned = findMentionedUser(event.getText());
+            if (mentioned != null) {
+                handlePlayerStats(ctx, channelId, mentioned);
+            } else {
+                handleStats(ctx, channelId, text);
             }
+            return;
+        }
 
-            // Default: show help
-            ctx.say("Hi! I'm baboon :monkey_face:\n" +
-                    "*Commands:*\n" +
-                    "\u2022 `@baboon play` - Start or join a foosball game\n" +
-                    "\u2022 `@baboon add @player` - Add another player to the lobby\n" +
-                    "\u2022 `@baboon stats` - Show weekly stats\n" +
-                    "\u2022 `@baboon stats all` - Show all time stats\n" +
-                    "\u2022 `@baboon stats reset` - Clear all stats\n\n" +
-                    "*Stats:*\n" +
-                    "\u2022 *Rankings* - Win%, wins, games played and total goals per player\n" +
-                    "\u2022 *Top Scorers* - Goals and goals per game (as forward)\n" +
-                    "\u2022 *Goalies* - Goals let in and goals let in per game (as goalie)");
-        } catch (Exception e) {
-            LOG.error("Error handling app mention", e);
+        if (text.contains("queue")) {
+            handleQueue(ctx, channelId);
+            return;
         }
-        return ctx.ack();
+
+        if (text.contains("leave")) {
+            handleLeave(ctx, channelId, userId);
+            return;
+        }
+
+        if (text.contains("play")) {
+            handlePlay(ctx, channelId, userId);
+            return;
+        }
+
+        if (text.contains("add")) {
+            handleAdd(ctx, channelId, userId, event.getText());
+            return;
+        }
+
+        // Default: show help
+        ctx.say("Hi! I'm baboon :monkey_face:\n" +
+                "*Commands:*\n" +
+                "\u2022 `@baboon play` - Start or join a foosball game\n" +
+                "\u2022 `@baboon add @player` - Add another player to the lobby\n" +
+                "\u2022 `@baboon queue` - Show who is waiting for a table\n" +
+                "\u2022 `@baboon leave` - Leave the queue\n" +
+                "\u2022 `@baboon stats` - Show weekly stats\n" +
+                "\u2022 `@baboon stats month` - Show stats for this month\n" +
+                "\u2022 `@baboon stats 2026-09-01..2026-09-30` - Show stats for a date range\n" +
+                "\u2022 `@baboon stats all` - Show all time stats\n" +
+                "\u2022 `@baboon stats @player` - Show a player's best partners and toughest opponents\n" +
+                "\u2022 `@baboon ratings` - Show the rating leaderboard and your rank\n" +
+                "\u2022 `@baboon rivals` - Show the most played rivalries\n" +
+                "\u2022 `@baboon stats reset` - Clear all stats\n\n" +
+                "*Stats:*\n" +
+                "\u2022 *Rankings* - Win%, wins, games played and total goals per player\n" +
+                "\u2022 *Top Scorers* - Goals and goals per game (as forward)\n" +
+                "\u2022 *Goalies* - Goals let in and goals let in per game (as goalie)\n" +
+                "\u2022 *Ratings* - Elo rating from wins and losses, weighted by the strength of both teams");
     }
 
-    private Response handlePlay(EventContext ctx, String channelId, String userId)
+    private void handlePlay(EventContext ctx, String channelId, String userId)
             throws IOException, SlackApiException {
-        // Check if there's an active game
-        if (gameService.hasActiveGame(channelId)) {
-            ctx.client().chatPostMessage(r -> r
-                    .channel(channelId)
-                    .text(BusyView.getText())
-                    .attachments(BusyView.build()));
-            return ctx.ack();
+        if (gameService.isPlaying(channelId, userId)) {
+            ctx.say("You're already playing! Finish that game first.");
+            return;
+        }
+        int queued = matchmaking.getPosition(channelId, userId);
+        if (queued > 0) {
+            ctx.say(String.format("You're already #%d in the queue.", queued));
+            return;
         }
 
         // Get user info for display name
-        String displayName = getUserDisplayName(ctx, userId);
+        String displayName = getUserDisplayName(userId);
+
+        // Open seats go to the lobby; once it is full, or every table is taken
+        // and others are already waiting, players join the queue instead
+        LobbyState open = lobbyService.getLobby(channelId);
+        boolean lobbyHasRoom = open != null
+                ? !open.isFull() || open.hasPlayer(userId)
+                : gameService.hasFreeTable(channelId) && matchmaking.getQueueSize(channelId) == 0;
+        if (!lobbyHasRoom) {
+            enqueue(ctx, channelId, userId, displayName);
+            return;
+        }
 
         // Join or create lobby
         lobbyService.joinLobby(channelId, userId, displayName);
@@ -125,54 +228,79 @@ public class AppMentionHandler implements BoltEventHandler<AppMentionEvent> {
                 text = ":soccer: The lobby is full! Hit *Start Game* when ready!";
             }
 
-            ctx.client().chatUpdate(r -> r
-                    .channel(channelId)
-                    .ts(lobby.getMessageTs())
-                    .text(text)
-                    .attachments(LobbyView.build(lobby)));
+            messageUpdates.update(ctx.client(), channelId, lobby.getMessageTs(), text, LobbyView.build(lobby));
         }
+    }
 
-        return ctx.ack();
+    private void enqueue(EventContext ctx, String channelId, String userId, String displayName)
+            throws IOException, SlackApiException {
+        int position = matchmaking.enqueue(channelId, userId, displayName);
+        ctx.client().chatPostMessage(r -> r
+                .channel(channelId)
+                .text(BusyView.getText(displayName, position))
+                .attachments(BusyView.build(gameService.getActiveGames(channelId))));
+
+        // Enough may now be waiting to fill a free table
+        announcer.announce(ctx.client(), channelId, matchmaking.fillTable(channelId));
     }
 
-    private Response handleAdd(EventContext ctx, String channelId, String requestingUserId, String rawText)
+    private void handleQueue(EventContext ctx, String channelId)
             throws IOException, SlackApiException {
-        if (!lobbyService.hasLobby(channelId)) {
-            ctx.say("There's no active lobby to add players to. Use `@baboon play` to start one.");
-            return ctx.ack();
+        List<Map<String, Object>> rows = matchmaking.getQueue(channelId);
+        int busy = gameService.getActiveGames(channelId).size();
+        String header = String.format(":hourglass_flowing_sand: *Queue* - %d waiting, %d of %d tables in use",
+                rows.size(), busy, matchmakingConfig.getTables());
+        ctx.client().chatPostMessage(r -> r
+                .channel(channelId)
+                .text(header)
+                .attachments(StatsView.build(Map.of("Waiting", rows))));
+    }
+
+    private void handleLeave(EventContext ctx, String channelId, String userId) {
+        if (matchmaking.leave(channelId, userId)) {
+            ctx.say(String.format(":wave: <@%s> left the queue.", userId));
+        } else {
+            ctx.say("You're not in the queue.");
         }
+    }
 
-        // Find all mentioned user IDs, skip the bot itself (first mention)
-        Matcher matcher = USER_MENTION_PATTERN.matcher(rawText);
-        String botId = null;
-        String targetUserId = null;
-        while (matcher.find()) {
-            String id = matcher.group(1);
-            if (botId == null) {
-                botId = id; // first mention is always the bot
-            } else {
-                targetUserId = id;
-                break;
-            }
+    private void handleAdd(EventContext ctx, String channelId, String requestingUserId, String rawText)
+            throws IOException, SlackApiException {
+        if (!lobbyService.hasLobby(channelId)) {
+            ctx.say("There's no active lobby to add players to. Use `@baboon play` to start one.");
+            return;
         }
 
+        String targetUserId = findMentionedUser(rawText);
         if (targetUserId == null) {
             ctx.say("Please mention a player to add, e.g. `@baboon add @player`.");
-            return ctx.ack();
+            return;
         }
 
         var lobby = lobbyService.getLobby(channelId);
         if (lobby.hasPlayer(targetUserId)) {
             ctx.say("That player is already in the lobby.");
-            return ctx.ack();
+            return;
+        }
+
+        if (gameService.isPlaying(channelId, targetUserId)) {
+            ctx.say("That player is already in a game.");
+            return;
         }
 
+        String displayName = getUserDisplayName(targetUserId);
         if (lobby.isFull()) {
-            ctx.say("The lobby is already full.");
-            return ctx.ack();
+            int queued = matchmaking.getPosition(channelId, targetUserId);
+            if (queued > 0) {
+                ctx.say(String.format("That player is already #%d in the queue.", queued));
+                return;
+            }
+            enqueue(ctx, channelId, targetUserId, displayName);
+            return;
         }
 
-        String displayName = getUserDisplayName(ctx, targetUserId);
+        // A seat in the lobby replaces a place in the queue, so promotion can't seat them twice
+        matchmaking.leave(channelId, targetUserId);
         lobbyService.joinLobby(channelId, targetUserId, displayName);
         LobbyState updatedLobby = lobbyService.getLobby(channelId);
 
@@ -181,50 +309,134 @@ public class AppMentionHandler implements BoltEventHandler<AppMentionEvent> {
                 ? String.format(":soccer: %s was added to the lobby. %d more needed.", displayName, needed)
                 : ":soccer: The lobby is full! Hit *Start Game* when ready!";
 
-        ctx.client().chatUpdate(r -> r
+        messageUpdates.update(ctx.client(), channelId, updatedLobby.getMessageTs(), text,
+                LobbyView.build(updatedLobby));
+    }
+
+    private void handleStats(EventContext ctx, String channelId, String text)
+            throws IOException, SlackApiException {
+        LocalDate today = LocalDate.now();
+        StatsWindow window;
+        String title;
+        Matcher range = DATE_RANGE_PATTERN.matcher(text);
+        if (range.find()) {
+            try {
+                LocalDate from = LocalDate.parse(range.group(1));
+                LocalDate to = LocalDate.parse(range.group(2));
+                if (from.isAfter(to)) {
+                    ctx.say("The start date must not be after the end date, e.g. `@baboon stats 2026-09-01..2026-09-30`.");
+                    return;
+                }
+                window = StatsWindow.range(from, to);
+                title = from + " to " + to;
+            } catch (DateTimeParseException e) {
+                ctx.say("I couldn't read those dates. Use `@baboon stats YYYY-MM-DD..YYYY-MM-DD`.");
+                return;
+            }
+        } else if (text.contains("all time") || text.contains("alltime") || text.contains("stats all")) {
+            window = StatsWindow.allTime();
+            title = "All Time";
+        } else if (text.contains("month")) {
+            window = StatsWindow.month(today);
+            title = "This Month";
+        } else {
+            window = StatsWindow.weekly(today);
+            title = "This Week";
+        }
+
+        StatsSnapshot stats = statsService.getStats(window);
+        String header = String.format(":bar_chart: *Stats %s* :bar_chart:", title);
+        ctx.client().chatPostMessage(r -> r
+                .channel(channelId)
+                .text(header)
+                .attachments(renderedStats.computeIfAbsent(stats, s -> StatsView.build(s.getRows()))));
+    }
+
+    private void handleRatings(EventContext ctx, String channelId, String userId)
+            throws IOException, SlackApiException {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (PlayerRating rating : ratingService.getTop(RATINGS_SHOWN)) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("display_name", rating.displayName());
+            row.put("rating", Math.round(rating.rating()));
+            row.put("games", rating.games());
+            rows.add(row);
+        }
+
+        String header = ":chart_with_upwards_trend: *Ratings* :chart_with_upwards_trend:";
+        var player = playerService.findBySlackUserId(userId);
+        int rank = player.map(p -> ratingService.getRank(p.getId())).orElse(0);
+        if (rank > 0) {
+            PlayerRating mine = ratingService.getRating(player.get().getId());
+            header += String.format("\nYou're #%d of %d with %d.", rank, ratingService.getRatedCount(),
+                    Math.round(mine.rating()));
+        }
+
+        String text = header;
+        ctx.client().chatPostMessage(r -> r
                 .channel(channelId)
-                .ts(updatedLobby.getMessageTs())
                 .text(text)
-                .attachments(LobbyView.build(updatedLobby)));
+                .attachments(StatsView.build(Map.of("Ratings", rows))));
+    }
 
-        return ctx.ack();
+    private void handlePlayerStats(EventContext ctx, String channelId, String targetUserId)
+            throws IOException, SlackApiException {
+        String displayName = getUserDisplayName(targetUserId);
+        var player = playerService.findBySlackUserId(targetUserId);
+        if (player.isEmpty()) {
+            ctx.say(displayName + " hasn't played any games yet.");
+            return;
+        }
+
+        long playerId = player.get().getId();
+        String header = String.format(":bust_in_silhouette: *Stats for %s*", displayName);
+        PlayerRating rating = ratingService.getRating(playerId);
+        if (rating != null) {
+            header += String.format("\nRating %d, #%d of %d after %d games.", Math.round(rating.rating()),
+                    ratingService.getRank(playerId), ratingService.getRatedCount(), rating.games());
+        }
+
+        Map<String, List<Map<String, Object>>> tables = new LinkedHashMap<>();
+        tables.put("Partners", headToHead.getPartners(playerId, HEAD_TO_HEAD_SHOWN));
+        tables.put("Opponents", headToHead.getOpponents(playerId, HEAD_TO_HEAD_SHOWN));
+
+        String text = header;
+        ctx.client().chatPostMessage(r -> r
+                .channel(channelId)
+                .text(text)
+                .attachments(StatsView.build(tables)));
     }
 
-    private Response handleStats(EventContext ctx, String channelId, boolean allTime)
+    private void handleRivals(EventContext ctx, String channelId)
             throws IOException, SlackApiException {
-        var stats = allTime ? statsService.getAllTimeStats() : statsService.getWeeklyStats();
-        String header = allTime
-                ? ":bar_chart: *Stats All Time* :bar_chart:"
-                : ":bar_chart: *Stats This Week* :bar_chart:";
         ctx.client().chatPostMessage(r -> r
                 .channel(channelId)
-                .text(header)
-                .attachments(StatsView.build(stats)));
-        return ctx.ack();
+                .text(":crossed_swords: *Rivals* :crossed_swords:")
+                .attachments(StatsView.build(Map.of("Rivals", headToHead.getRivals(RIVALS_SHOWN)))));
     }
 
-    private Response handleStatsReset(EventContext ctx, String channelId)
+    private void handleStatsReset(EventContext ctx, String channelId)
             throws IOException, SlackApiException {
+        ratingService.reset();
+        headToHead.reset();
+        // Bump the generation last, so API clients cannot tag a profile read before the indexes were cleared
         statsService.resetAll();
         ctx.client().chatPostMessage(r -> r
                 .channel(channelId)
                 .text(":wastebasket: All stats have been reset."));
-        return ctx.ack();
     }
 
-    private String getUserDisplayName(EventContext ctx, String userId) {
-        try {
-            var userInfo = ctx.client().usersInfo(r -> r.user(userId));
-            if (userInfo.isOk()) {
-                String displayName = userInfo.getUser().getProfile().getDisplayName();
-                if (displayName == null || displayName.isBlank()) {
-                    displayName = userInfo.getUser().getName();
-                }
-                return displayName;
-            }
-        } catch (Exception e) {
-            LOG.warn("Failed to get user info for {}", userId, e);
-        }
-        return userId;
+    /**
+     * Returns the first user mentioned after the bot, or null if there is none.
+     */
+    private static String findMentionedUser(String rawText) {
+        Matcher matcher = USER_MENTION_PATTERN.matcher(rawText);
+        // The first mention is always the bot
+        if (!matcher.find()) return null;
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    private String getUserDisplayName(String userId) {
+        return displayNames.get(userId);
     }
 }
@@ -1,7 +1,13 @@
 package com.baboon.slack.handler;
 
+import com.baboon.metrics.Instrumented;
+import com.baboon.model.GameSnapshot;
 import com.baboon.model.GameState;
 import com.baboon.service.GameService;
+import com.baboon.service.MatchmakingService;
+import com.baboon.slack.MatchAnnouncer;
+import com.baboon.slack.MessageUpdateScheduler;
+import com.baboon.slack.SlackDispatcher;
 import com.baboon.slack.view.GameView;
 import com.baboon.slack.view.ScoreboardView;
 import com.slack.api.bolt.context.builtin.ActionContext;
@@ -11,110 +17,134 @@ import jakarta.inject.Singleton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+
 @Singleton
+@Instrumented(value = "baboon.slack.handler", slo = 3000)
 public class GameActionHandler {
 
     private static final Logger LOG = LoggerFactory.getLogger(GameActionHandler.class);
 
     private final GameService gameService;
+    private final MatchmakingService matchmaking;
+    private final SlackDispatcher dispatcher;
+    private final MessageUpdateScheduler messageUpdates;
+    private final MatchAnnouncer announcer;
 
-    public GameActionHandler(GameService gameService) {
+    public GameActionHandler(GameService gameService, MatchmakingService matchmaking, SlackDispatcher dispatcher,
+                             MessageUpdateScheduler messageUpdates, MatchAnnouncer announcer) {
         this.gameService = gameService;
+        this.matchmaking = matchmaking;
+        this.dispatcher = dispatcher;
+        this.messageUpdates = messageUpdates;
+        this.announcer = announcer;
     }
 
     public Response handleGoal(BlockActionRequest req, ActionContext ctx) {
-        try {
-            String channelId = req.getPayload().getChannel().getId();
+        String channelId = req.getPayload().getChannel().getId();
+        dispatcher.dispatch(channelId, "goal", () -> {
             String userId = req.getPayload().getUser().getId();
             String actionId = req.getPayload().getActions().get(0).getActionId();
 
-            GameState game = gameService.getActiveGame(channelId);
-            if (game == null) return ctx.ack();
+            // Game player ids are unique, so the button identifies its game
+            long gamePlayerId = Long.parseLong(actionId.replace("game_goal_", ""));
+            GameState game = gameService.findGameByGamePlayerId(channelId, gamePlayerId);
+            if (game == null) return;
 
             // Only participants can click
-            if (!game.isParticipant(userId)) return ctx.ack();
+            if (!game.isParticipant(userId)) return;
 
-            long gamePlayerId = Long.parseLong(actionId.replace("game_goal_", ""));
             gameService.addGoal(channelId, gamePlayerId);
 
             updateGameMessage(ctx, channelId, game);
-        } catch (Exception e) {
-            LOG.error("Error handling goal", e);
-        }
+        });
         return ctx.ack();
     }
 
     public Response handleEndGame(BlockActionRequest req, ActionContext ctx) {
-        try {
-            String channelId = req.getPayload().getChannel().getId();
+        String channelId = req.getPayload().getChannel().getId();
+        dispatcher.dispatch(channelId, "end game", () -> {
             String userId = req.getPayload().getUser().getId();
 
-            GameState game = gameService.getActiveGame(channelId);
-            if (game == null) return ctx.ack();
-            if (!game.isParticipant(userId)) return ctx.ack();
+            GameState game = resolveGame(req, channelId);
+            if (game == null) return;
+            if (!game.isParticipant(userId)) return;
 
-            return finishGame(ctx, channelId);
-        } catch (Exception e) {
-            LOG.error("Error handling end game", e);
-        }
+            finishGame(ctx, channelId, game.getGameId());
+        });
         return ctx.ack();
     }
 
     public Response handleCancelGame(BlockActionRequest req, ActionContext ctx) {
-        try {
-            String channelId = req.getPayload().getChannel().getId();
+        String channelId = req.getPayload().getChannel().getId();
+        dispatcher.dispatch(channelId, "cancel game", () -> {
+            GameState active = resolveGame(req, channelId);
+            if (active == null) return;
 
-            GameState game = gameService.cancelGame(channelId);
-            if (game == null) return ctx.ack();
+            GameState game = gameService.cancelGame(channelId, active.getGameId());
+            if (game == null) return;
 
             if (game.getMessageTs() != null) {
+                messageUpdates.cancel(channelId, game.getMessageTs());
                 ctx.client().chatDelete(r -> r.channel(channelId).ts(game.getMessageTs()));
             }
 
             ctx.client().chatPostMessage(r -> r
                     .channel(channelId)
                     .text(":x: Game cancelled."));
-        } catch (Exception e) {
-            LOG.error("Error handling cancel game", e);
-        }
+
+            announcer.announce(ctx.client(), channelId, matchmaking.fillTable(channelId));
+        });
         return ctx.ack();
     }
 
-    private Response finishGame(ActionContext ctx, String channelId) throws Exception {
-        GameState game = gameService.getActiveGame(channelId);
-        if (game == null) return ctx.ack();
+    private void finishGame(ActionContext ctx, String channelId, long gameId) throws Exception {
+        GameState game = gameService.getActiveGame(channelId, gameId);
+        if (game == null) return;
 
         String messageTs = game.getMessageTs();
 
         // Complete the game in DB
-        GameState completedGame = gameService.completeGame(channelId);
-        if (completedGame == null) return ctx.ack();
+        GameState completedGame = gameService.completeGame(channelId, gameId);
+        if (completedGame == null) return;
 
-        // Update the existing message with the scoreboard (preserves any threads)
+        // Update the existing message with the scoreboard (preserves any threads);
+        // it supersedes any game render still waiting to be sent
+        GameSnapshot snapshot = completedGame.snapshot();
         if (messageTs != null) {
-            ctx.client().chatUpdate(r -> r
-                    .channel(channelId)
-                    .ts(messageTs)
-                    .text(":trophy: Game Over!")
-                    .attachments(ScoreboardView.build(completedGame)));
+            messageUpdates.update(ctx.client(), channelId, messageTs,
+                    ":trophy: Game Over!", ScoreboardView.build(snapshot));
         } else {
             ctx.client().chatPostMessage(r -> r
                     .channel(channelId)
                     .text(":trophy: Game Over!")
-                    .attachments(ScoreboardView.build(completedGame)));
+                    .attachments(ScoreboardView.build(snapshot)));
         }
 
         LOG.info("Game finished and scoreboard posted in channel {}", channelId);
-        return ctx.ack();
+
+        // Hand the freed table to the winners and the queue
+        announcer.announce(ctx.client(), channelId, matchmaking.promote(channelId, completedGame));
+    }
+
+    /**
+     * The game a button belongs to, from its value. Buttons posted before games
+     * carried their id fall back to the channel's only active game.
+     */
+    private GameState resolveGame(BlockActionRequest req, String channelId) {
+        String value = req.getPayload().getActions().get(0).getValue();
+        if (value != null && !value.isBlank()) {
+            return gameService.getActiveGame(channelId, Long.parseLong(value));
+        }
+        List<GameState> games = gameService.getActiveGames(channelId);
+        return games.size() == 1 ? games.get(0) : null;
     }
 
-    private void updateGameMessage(ActionContext ctx, String channelId, GameState game) throws Exception {
+    private void updateGameMessage(ActionContext ctx, String channelId, GameState game) {
         if (game.getMessageTs() == null) return;
 
-        ctx.client().chatUpdate(r -> r
-                .channel(channelId)
-                .ts(game.getMessageTs())
-                .text(GameView.getText(game))
-                .attachments(GameView.build(game)));
+        GameSnapshot snapshot = game.snapshot();
+        messageUpdates.update(ctx.client(), channelId, game.getMessageTs(),
+                GameView.getText(snapshot), GameView.build(snapshot));
     }
 }
@@ -1,10 +1,16 @@
 package com.baboon.slack.handler;
 
+import com.baboon.metrics.Instrumented;
+import com.baboon.model.GameSnapshot;
 import com.baboon.model.GameState;
 import com.baboon.model.LobbyState;
 import com.baboon.model.Team;
 import com.baboon.service.GameService;
 import com.baboon.service.LobbyService;
+import com.baboon.service.MatchmakingService;
+import com.baboon.slack.MatchAnnouncer;
+import com.baboon.slack.MessageUpdateScheduler;
+import com.baboon.slack.SlackDispatcher;
 import com.baboon.slack.view.GameView;
 import com.baboon.slack.view.LobbyView;
 import com.slack.api.bolt.context.builtin.ActionContext;
@@ -16,119 +22,164 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 @Singleton
+@Instrumented(value = "baboon.slack.handler", slo = 3000)
 public class LobbyActionHandler {
 
     private static final Logger LOG = LoggerFactory.getLogger(LobbyActionHandler.class);
 
     private final LobbyService lobbyService;
     private final GameService gameService;
-
-    public LobbyActionHandler(LobbyService lobbyService, GameService gameService) {
+    private final MatchmakingService matchmaking;
+    private final SlackDispatcher dispatcher;
+    private final MessageUpdateScheduler messageUpdates;
+    private final MatchAnnouncer announcer;
+
+    public LobbyActionHandler(LobbyService lobbyService, GameService gameService, MatchmakingService matchmaking,
+                              SlackDispatcher dispatcher, MessageUpdateScheduler messageUpdates,
+                              MatchAnnouncer announcer) {
         this.lobbyService = lobbyService;
         this.gameService = gameService;
+        this.matchmaking = matchmaking;
+        this.dispatcher = dispatcher;
+        this.messageUpdates = messageUpdates;
+        this.announcer = announcer;
     }
 
     public Response handleSwitchPositions(BlockActionRequest req, ActionContext ctx) {
-        try {
-            String channelId = req.getPayload().getChannel().getId();
+        String channelId = req.getPayload().getChannel().getId();
+        dispatcher.dispatch(channelId, "switch positions", () -> {
             String userId = req.getPayload().getUser().getId();
             String actionId = req.getPayload().getActions().get(0).getActionId();
 
             LobbyState lobby = lobbyService.getLobby(channelId);
-            if (lobby == null || !lobby.hasPlayer(userId)) return ctx.ack();
+            if (lobby == null || !lobby.hasPlayer(userId)) return;
 
             Team team = actionId.contains("blue") ? Team.BLUE : Team.RED;
             lobbyService.switchPositions(channelId, team);
 
             updateLobbyMessage(ctx, channelId, lobby);
-        } catch (Exception e) {
-            LOG.error("Error handling switch positions", e);
-        }
+        });
         return ctx.ack();
     }
 
     public Response handleShuffle(BlockActionRequest req, ActionContext ctx) {
-        try {
-            String channelId = req.getPayload().getChannel().getId();
+        String channelId = req.getPayload().getChannel().getId();
+        dispatcher.dispatch(channelId, "shuffle", () -> {
             String userId = req.getPayload().getUser().getId();
 
             LobbyState lobby = lobbyService.getLobby(channelId);
-            if (lobby == null || !lobby.hasPlayer(userId)) return ctx.ack();
+            if (lobby == null || !lobby.hasPlayer(userId)) return;
 
             lobbyService.shuffleTeams(channelId);
             updateLobbyMessage(ctx, channelId, lobby);
-        } catch (Exception e) {
-            LOG.error("Error handling shuffle", e);
-        }
+        });
+        return ctx.ack();
+    }
+
+    public Response handleBalance(BlockActionRequest req, ActionContext ctx) {
+        String channelId = req.getPayload().getChannel().getId();
+        dispatcher.dispatch(channelId, "balance", () -> {
+            String userId = req.getPayload().getUser().getId();
+
+            LobbyState lobby = lobbyService.getLobby(channelId);
+            if (lobby == null || !lobby.hasPlayer(userId)) return;
+
+            lobbyService.balanceTeams(channelId);
+            updateLobbyMessage(ctx, channelId, lobby);
+        });
         return ctx.ack();
     }
 
     public Response handleCancel(BlockActionRequest req, ActionContext ctx) {
-        try {
-            String channelId = req.getPayload().getChannel().getId();
+        String channelId = req.getPayload().getChannel().getId();
+        dispatcher.dispatch(channelId, "cancel", () -> {
             String userId = req.getPayload().getUser().getId();
 
             LobbyState lobby = lobbyService.getLobby(channelId);
-            if (lobby == null || !lobby.hasPlayer(userId)) return ctx.ack();
+            if (lobby == null || !lobby.hasPlayer(userId)) return;
 
             String messageTs = lobby.getMessageTs();
             lobbyService.cancelLobby(channelId);
 
             if (messageTs != null) {
+                messageUpdates.cancel(channelId, messageTs);
                 ctx.client().chatDelete(r -> r.channel(channelId).ts(messageTs));
             }
 
             ctx.client().chatPostMessage(r -> r
                     .channel(channelId)
                     .text(":x: Game cancelled."));
-        } catch (Exception e) {
-            LOG.error("Error handling cancel", e);
-        }
+
+            announcer.announce(ctx.client(), channelId, matchmaking.fillTable(channelId));
+        });
+        return ctx.ack();
+    }
+
+    public Response handleLeaveQueue(BlockActionRequest req, ActionContext ctx) {
+        String channelId = req.getPayload().getChannel().getId();
+        dispatcher.dispatch(channelId, "leave queue", () -> {
+            String userId = req.getPayload().getUser().getId();
+            if (matchmaking.leave(channelId, userId)) {
+                ctx.client().chatPostMessage(r -> r
+                        .channel(channelId)
+                        .text(String.format(":wave: <@%s> left the queue.", userId)));
+            }
+        });
         return ctx.ack();
     }
 
     public Response handleStart(BlockActionRequest req, ActionContext ctx) {
-        try {
-            String channelId = req.getPayload().getChannel().getId();
+        String channelId = req.getPayload().getChannel().getId();
+        dispatcher.dispatch(channelId, "start", () -> {
             String userId = req.getPayload().getUser().getId();
 
             LobbyState lobby = lobbyService.getLobby(channelId);
-            if (lobby == null || !lobby.hasPlayer(userId) || !lobby.isFull()) return ctx.ack();
+            if (lobby == null || !lobby.hasPlayer(userId) || !lobby.isFull()) return;
 
-            return startGame(ctx, channelId);
-        } catch (Exception e) {
-            LOG.error("Error handling start", e);
-        }
+            startGame(ctx, channelId);
+        });
         return ctx.ack();
     }
 
-    private Response startGame(ActionContext ctx, String channelId) throws Exception {
+    private void startGame(ActionContext ctx, String channelId) throws Exception {
+        if (!gameService.hasFreeTable(channelId)) {
+            ctx.client().chatPostMessage(r -> r
+                    .channel(channelId)
+                    .text(":hourglass_flowing_sand: Every table is taken. Hit *Start Game* again once one frees up."));
+            return;
+        }
+
         LobbyState lobby = lobbyService.removeLobby(channelId);
-        if (lobby == null) return ctx.ack();
+        if (lobby == null) return;
 
         // Delete lobby message
         if (lobby.getMessageTs() != null) {
+            messageUpdates.cancel(channelId, lobby.getMessageTs());
             ctx.client().chatDelete(r -> r.channel(channelId).ts(lobby.getMessageTs()));
         }
 
-        // Start the game
+        // Start the game; the table check above ran in this channel's mailbox, so it still holds
         GameState gameState = gameService.startGame(lobby);
+        if (gameState == null) return;
 
         // Post game message
+        GameSnapshot snapshot = gameState.snapshot();
         ChatPostMessageResponse response = ctx.client().chatPostMessage(r -> r
                 .channel(channelId)
-                .text(GameView.getText(gameState))
-                .attachments(GameView.build(gameState)));
+                .text(GameView.getText(snapshot))
+                .attachments(GameView.build(snapshot)));
 
         if (response.isOk()) {
             gameState.setMessageTs(response.getTs());
         }
 
         LOG.info("Game started in channel {}", channelId);
-        return ctx.ack();
+
+        // Another table may still be free for the people waiting
+        announcer.announce(ctx.client(), channelId, matchmaking.fillTable(channelId));
     }
 
-    private void updateLobbyMessage(ActionContext ctx, String channelId, LobbyState lobby) throws Exception {
+    private void updateLobbyMessage(ActionContext ctx, String channelId, LobbyState lobby) {
         if (lobby.getMessageTs() == null) return;
 
         int needed = 4 - lobby.getPlayers().size();
@@ -139,10 +190,6 @@ public class LobbyActionHandler {
             text = ":soccer: The lobby is full! Hit *Start Game* when ready!";
         }
 
-        ctx.client().chatUpdate(r -> r
-                .channel(channelId)
-                .ts(lobby.getMessageTs())
-                .text(text)
-                .attachments(LobbyView.build(lobby)));
+        messageUpdates.update(ctx.client(), channelId, lobby.getMessageTs(), text, LobbyView.build(lobby));
     }
 }
@@ -1,5 +1,6 @@
 package com.baboon.slack.view;
 
+import com.baboon.model.GameState;
 import com.slack.api.model.Attachment;
 import com.slack.api.model.block.ActionsBlock;
 import com.slack.api.model.block.LayoutBlock;
@@ -9,33 +10,45 @@ import com.slack.api.model.block.composition.PlainTextObject;
 import com.slack.api.model.block.element.BlockElement;
 import com.slack.api.model.block.element.ButtonElement;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class BusyView {
 
-    public static String getText() {
-        return "Sorry I'm busy monitoring a game right now. I can still show you stats if you'd like.";
+    public static String getText(String displayName, int position) {
+        return String.format(":hourglass_flowing_sand: All tables are taken, so %s is #%d in the queue. " +
+                "I'll call you up when a table frees.", displayName, position);
     }
 
-    public static List<Attachment> build() {
+    public static List<Attachment> build(List<GameState> activeGames) {
+        List<BlockElement> buttons = new ArrayList<>();
+        buttons.add(ButtonElement.builder()
+                .text(PlainTextObject.builder().text("Leave Queue").build())
+                .actionId("queue_leave")
+                .build());
+
+        // With a single game running it is unambiguous which one to cancel
+        if (activeGames.size() == 1) {
+            buttons.add(ButtonElement.builder()
+                    .text(PlainTextObject.builder().text("Cancel Game").build())
+                    .actionId("game_cancel")
+                    .value(String.valueOf(activeGames.get(0).getGameId()))
+                    .style("danger")
+                    .build());
+        }
+
         return List.of(
                 Attachment.builder()
-                        .fallback("Foosball game in progress")
+                        .fallback("Foosball queue")
                         .color("#cccccc")
                         .blocks(List.<LayoutBlock>of(
                                 SectionBlock.builder()
                                         .text(MarkdownTextObject.builder()
-                                                .text("Feel free to cancel the current game!")
+                                                .text("I can still show you stats while you wait.")
                                                 .build())
                                         .build(),
                                 ActionsBlock.builder()
-                                        .elements(List.<BlockElement>of(
-                                                ButtonElement.builder()
-                                                        .text(PlainTextObject.builder().text("Cancel Game").build())
-                                                        .actionId("game_cancel")
-                                                        .style("danger")
-                                                        .build()
-                                        ))
+                                        .elements(buttons)
                                         .build()
                         ))
                         .build()
@@ -1,6 +1,6 @@
 package com.baboon.slack.view;
 
-import com.baboon.model.GameState;
+import com.baboon.model.GameSnapshot;
 import com.baboon.model.Position;
 import com.baboon.model.Team;
 import com.slack.api.model.Attachment;
@@ -17,11 +17,11 @@ import java.util.List;
 
 public class GameView {
 
-    public static String getText(GameState game) {
-        return ":monkey_face:";
+    public static String getText(GameSnapshot game) {
+        return game.table() > 0 ? ":monkey_face: Table " + game.table() : ":monkey_face:";
     }
 
-    public static List<Attachment> build(GameState game) {
+    public static List<Attachment> build(GameSnapshot game) {
         List<Attachment> attachments = new ArrayList<>();
 
         // Blue team
@@ -34,9 +34,9 @@ public class GameView {
         return attachments;
     }
 
-    private static Attachment buildTeamAttachment(GameState game, Team team, String color) {
-        List<GameState.GamePlayerState> teamPlayers = game.getTeam(team);
-        int teamScore = teamPlayers.stream().mapToInt(GameState.GamePlayerState::getGoals).sum();
+    private static Attachment buildTeamAttachment(GameSnapshot game, Team team, String color) {
+        List<GameSnapshot.PlayerSnapshot> teamPlayers = game.team(team);
+        int teamScore = game.score(team);
 
         String teamName = team == Team.BLUE ? "Blue" : "Red";
 
@@ -48,15 +48,15 @@ public class GameView {
                 .build());
 
         // Player goal buttons
-        for (GameState.GamePlayerState player : teamPlayers) {
-            String posLabel = player.getPosition() == Position.GOALIE ? "G" : "F";
-            String buttonText = String.format("[%s] %s: %d", posLabel, player.getDisplayName(), player.getGoals());
+        for (GameSnapshot.PlayerSnapshot player : teamPlayers) {
+            String posLabel = player.position() == Position.GOALIE ? "G" : "F";
+            String buttonText = String.format("[%s] %s: %d", posLabel, player.displayName(), player.goals());
 
             blocks.add(ActionsBlock.builder()
                     .elements(List.<BlockElement>of(
                             ButtonElement.builder()
                                     .text(PlainTextObject.builder().text(buttonText).build())
-                                    .actionId("game_goal_" + player.getGamePlayerId())
+                                    .actionId("game_goal_" + player.gamePlayerId())
                                     .build()
                     ))
                     .build());
@@ -69,15 +69,24 @@ public class GameView {
                 .build();
     }
 
-    private static Attachment buildGameActionsAttachment(GameState game) {
+    private static Attachment buildGameActionsAttachment(GameSnapshot game) {
         List<BlockElement> buttons = new ArrayList<>();
 
         buttons.add(ButtonElement.builder()
                 .text(PlainTextObject.builder().text("End Game").build())
                 .actionId("game_end")
+                .value(String.valueOf(game.gameId()))
                 .style("primary")
                 .build());
 
+        // Carries the game id too, so each table's game can be cancelled on its own
+        buttons.add(ButtonElement.builder()
+                .text(PlainTextObject.builder().text("Cancel Game").build())
+                .actionId("game_cancel")
+                .value(String.valueOf(game.gameId()))
+                .style("danger")
+                .build());
+
         return Attachment.builder()
                 .fallback("Foosball game actions")
                 .color("#cccccc")
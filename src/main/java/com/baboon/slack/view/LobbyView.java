@@ -24,7 +24,7 @@ public class LobbyView {
         attachments.add(buildTeamAttachment(lobby, Team.BLUE, "#0000ff"));
         // Red team attachment
         attachments.add(buildTeamAttachment(lobby, Team.RED, "#ff0000"));
-        // Actions attachment (shuffle, cancel, start)
+        // Actions attachment (shuffle, balance, cancel, start)
         attachments.add(buildActionsAttachment(lobby));
 
         return attachments;
@@ -86,6 +86,14 @@ public class LobbyView {
                 .actionId("lobby_shuffle")
                 .build());
 
+        // Balancing needs everyone's ratings, so only offer it once the lobby is full
+        if (lobby.isFull()) {
+            buttons.add(ButtonElement.builder()
+                    .text(PlainTextObject.builder().text("Balance Teams").build())
+                    .actionId("lobby_balance")
+                    .build());
+        }
+
         buttons.add(ButtonElement.builder()
                 .text(PlainTextObject.builder().text("Cancel").build())
                 .actionId("lobby_cancel")
@@ -1,6 +1,6 @@
 package com.baboon.slack.view;
 
-import com.baboon.model.GameState;
+import com.baboon.model.GameSnapshot;
 import com.baboon.model.Position;
 import com.baboon.model.Team;
 import com.slack.api.model.Attachment;
@@ -27,18 +27,18 @@ public class ScoreboardView {
             "The alpha baboons have spoken :gorilla:"
     };
 
-    public static List<Attachment> build(GameState game) {
+    public static List<Attachment> build(GameSnapshot game) {
         List<Attachment> attachments = new ArrayList<>();
 
-        Team winningTeam = game.getLeadingTeam();
+        Team winningTeam = game.leadingTeam();
         String winTeamName = winningTeam == Team.BLUE ? "BLUE" : "RED";
-        int totalBlue = game.getBlueScore();
-        int totalRed = game.getRedScore();
+        int totalBlue = game.blueScore();
+        int totalRed = game.redScore();
 
         // Winner players
-        var winners = game.getTeam(winningTeam);
+        var winners = game.team(winningTeam);
         String winnerNames = winners.stream()
-                .map(GameState.GamePlayerState::getDisplayName)
+                .map(GameSnapshot.PlayerSnapshot::displayName)
                 .reduce((a, b) -> a + " and " + b)
                 .orElse("");
 
@@ -77,7 +77,7 @@ public class ScoreboardView {
         attachments.add(buildTeamScoreboard(game, losingTeam, false));
 
         // Duration
-        Duration duration = Duration.between(game.getStartTime(), Instant.now());
+        Duration duration = Duration.between(game.startTime(), Instant.now());
         long totalSeconds = duration.getSeconds();
         String durationStr;
         if (totalSeconds < 60) {
@@ -104,18 +104,18 @@ public class ScoreboardView {
         return attachments;
     }
 
-    private static Attachment buildTeamScoreboard(GameState game, Team team, boolean isWinner) {
+    private static Attachment buildTeamScoreboard(GameSnapshot game, Team team, boolean isWinner) {
         String color = team == Team.BLUE ? "#0000ff" : "#ff0000";
         String[] emojis = isWinner ? WINNER_EMOJIS : LOSER_EMOJIS;
 
         StringBuilder text = new StringBuilder();
-        var teamPlayers = game.getTeam(team);
+        var teamPlayers = game.team(team);
         int emojiIdx = 0;
         for (var player : teamPlayers) {
-            String posLabel = player.getPosition() == Position.GOALIE ? "G" : "F";
+            String posLabel = player.position() == Position.GOALIE ? "G" : "F";
             String emoji = emojis[emojiIdx % emojis.length];
             text.append(String.format("[%s] %s: *%d goals* %s\n",
-                    posLabel, player.getDisplayName(), player.getGoals(), emoji));
+                    posLabel, player.displayName(), player.goals(), emoji));
             emojiIdx++;
         }
 
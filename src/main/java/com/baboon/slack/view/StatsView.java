@@ -107,6 +107,11 @@ public class StatsView {
             case "goals" -> "Goals";
             case "per_game" -> "Per Game";
             case "goals_let_in" -> "Goals let in";
+            case "rating" -> "Rating";
+            case "losses" -> "Losses";
+            case "rivalry" -> "Rivalry";
+            case "record" -> "Record";
+            case "waiting" -> "Waiting";
             default -> name;
         };
     }
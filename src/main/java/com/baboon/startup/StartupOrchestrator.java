@@ -0,0 +1,84 @@
+package com.baboon.startup;
+
+import com.baboon.db.DatabaseMigration;
+import com.baboon.service.GameHistory;
+import com.baboon.slack.SlackConnector;
+import com.baboon.slack.SlackDispatcher;
+import io.micronaut.context.BeanProvider;
+import io.micronaut.context.event.ApplicationEventListener;
+import io.micronaut.runtime.event.ApplicationStartupEvent;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs startup as two overlapping tracks: the Socket Mode connect, and
+ * migration followed by every {@link Warmer} in parallel. Events that arrive
+ * once the socket is up are acked and held by {@link SlackDispatcher} until the
+ * second track is done. Each phase logs how long it took.
+ */
+@Singleton
+public class StartupOrchestrator implements ApplicationEventListener<ApplicationStartupEvent> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StartupOrchestrator.class);
+
+    private final DatabaseMigration migration;
+    private final List<Warmer> warmers;
+    private final GameHistory history;
+    private final BeanProvider<SlackConnector> slack;
+    private final SlackDispatcher dispatcher;
+
+    public StartupOrchestrator(DatabaseMigration migration, List<Warmer> warmers, GameHistory history,
+                               BeanProvider<SlackConnector> slack, SlackDispatcher dispatcher) {
+        this.migration = migration;
+        this.warmers = warmers;
+        this.history = history;
+        this.slack = slack;
+        this.dispatcher = dispatcher;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationStartupEvent event) {
+        long started = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<Void> connect = slack.isPresent()
+                    ? phase("slack connect", () -> slack.get().connect(), executor)
+                    : CompletableFuture.completedFuture(null);
+
+            CompletableFuture<Void> ready = phase("migration", migration::migrate, executor)
+                    .thenCompose(done -> CompletableFuture.allOf(warmers.stream()
+                            .map(warmer -> phase("warm " + warmer.getClass().getSimpleName(), warmer::warm, executor))
+                            .toArray(CompletableFuture[]::new)));
+
+            ready.join();
+            // Warmers shared one history load; let it go now they are all done
+            history.release();
+            dispatcher.open();
+            LOG.info("Database ready after {} ms", elapsedMillis(started));
+
+            connect.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new RuntimeException("Startup failed", e);
+        }
+        LOG.info("Startup finished in {} ms", elapsedMillis(started));
+    }
+
+    private static CompletableFuture<Void> phase(String name, Runnable work, Executor executor) {
+        return CompletableFuture.runAsync(() -> {
+            long started = System.nanoTime();
+            work.run();
+            LOG.info("Startup phase {} took {} ms", name, elapsedMillis(started));
+        }, executor);
+    }
+
+    private static long elapsedMillis(long startedNanos) {
+        return (System.nanoTime() - startedNanos) / 1_000_000;
+    }
+}
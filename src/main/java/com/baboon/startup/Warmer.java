@@ -0,0 +1,11 @@
+package com.baboon.startup;
+
+/**
+ * Startup work that loads in-memory state or caches from the database. Every
+ * warmer runs once, after migrations and in parallel with the others, and
+ * Slack events are held until all of them have finished.
+ */
+public interface Warmer {
+
+    void warm();
+}
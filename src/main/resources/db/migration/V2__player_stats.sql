@@ -0,0 +1,33 @@
+-- Final team scores, written once when a game completes
+ALTER TABLE games ADD COLUMN blue_score INTEGER;
+ALTER TABLE games ADD COLUMN red_score INTEGER;
+
+UPDATE games
+SET blue_score = (SELECT COALESCE(SUM(gp.goals), 0) FROM game_players gp WHERE gp.game_id = games.id AND gp.team = 'BLUE'),
+    red_score  = (SELECT COALESCE(SUM(gp.goals), 0) FROM game_players gp WHERE gp.game_id = games.id AND gp.team = 'RED')
+WHERE status = 'COMPLETED';
+
+-- All-time aggregate per player and position, maintained by GameRepository.complete
+CREATE TABLE player_stats (
+    player_id INTEGER NOT NULL REFERENCES players(id),
+    position TEXT NOT NULL,
+    games INTEGER NOT NULL DEFAULT 0,
+    wins INTEGER NOT NULL DEFAULT 0,
+    goals INTEGER NOT NULL DEFAULT 0,
+    goals_against INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (player_id, position)
+);
+
+-- One-shot rebuild for databases that already have history
+INSERT INTO player_stats (player_id, position, games, wins, goals, goals_against)
+SELECT gp.player_id,
+       gp.position,
+       COUNT(*),
+       SUM(CASE WHEN (gp.team = 'BLUE' AND g.blue_score > g.red_score)
+                  OR (gp.team = 'RED' AND g.red_score > g.blue_score) THEN 1 ELSE 0 END),
+       SUM(gp.goals),
+       SUM(CASE WHEN gp.team = 'BLUE' THEN g.red_score ELSE g.blue_score END)
+FROM game_players gp
+JOIN games g ON gp.game_id = g.id
+WHERE g.status = 'COMPLETED'
+GROUP BY gp.player_id, gp.position;
@@ -0,0 +1,9 @@
+-- Current rating per player, updated by RatingService when a game completes.
+-- Empty until the first startup, which replays history to fill it.
+CREATE TABLE player_ratings (
+    player_id INTEGER PRIMARY KEY REFERENCES players(id),
+    rating REAL NOT NULL,
+    games INTEGER NOT NULL DEFAULT 0
+);
+
+CREATE INDEX idx_games_status_end_time ON games(status, end_time);
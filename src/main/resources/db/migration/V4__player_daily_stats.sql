@@ -0,0 +1,26 @@
+-- Per player, position and day, maintained by GameRepository.complete. Windowed
+-- stats sum these rows instead of scanning game_players.
+CREATE TABLE player_daily_stats (
+    day TEXT NOT NULL,
+    player_id INTEGER NOT NULL REFERENCES players(id),
+    position TEXT NOT NULL,
+    games INTEGER NOT NULL DEFAULT 0,
+    wins INTEGER NOT NULL DEFAULT 0,
+    goals INTEGER NOT NULL DEFAULT 0,
+    goals_against INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (day, player_id, position)
+);
+
+INSERT INTO player_daily_stats (day, player_id, position, games, wins, goals, goals_against)
+SELECT date(COALESCE(g.start_time, g.created_at)),
+       gp.player_id,
+       gp.position,
+       COUNT(*),
+       SUM(CASE WHEN (gp.team = 'BLUE' AND g.blue_score > g.red_score)
+                  OR (gp.team = 'RED' AND g.red_score > g.blue_score) THEN 1 ELSE 0 END),
+       SUM(gp.goals),
+       SUM(CASE WHEN gp.team = 'BLUE' THEN g.red_score ELSE g.blue_score END)
+FROM game_players gp
+JOIN games g ON gp.game_id = g.id
+WHERE g.status = 'COMPLETED'
+GROUP BY 1, gp.player_id, gp.position;
@@ -0,0 +1,144 @@
+package com.baboon.service;
+
+import com.baboon.model.GamePlayer;
+import com.baboon.model.Player;
+import com.baboon.model.Position;
+import com.baboon.model.StatsWindow;
+import com.baboon.model.Team;
+import com.baboon.repository.GamePlayerRepository;
+import com.baboon.repository.GameRepository;
+import com.baboon.repository.PlayerRepository;
+import com.baboon.repository.StatsRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sqlite.SQLiteDataSource;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the in-memory stats against the SQLite stats queries they replace,
+ * row for row, on a small database with tied records and drawn games.
+ */
+class AnalyticsStoreTest {
+
+    private static final int RANDOM_GAMES = 200;
+
+    @TempDir
+    Path dir;
+
+    private final LocalDate today = LocalDate.now();
+    private GameRepository gameRepository;
+    private GamePlayerRepository gamePlayerRepository;
+    private StatsRepository statsRepository;
+    private final List<Player> players = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + dir.resolve("baboon.db"));
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        gameRepository = new GameRepository(dataSource, dataSource);
+        gamePlayerRepository = new GamePlayerRepository(dataSource, dataSource);
+        statsRepository = new StatsRepository(dataSource, dataSource);
+
+        PlayerRepository playerRepository = new PlayerRepository(dataSource, dataSource);
+        for (int i = 0; i < 12; i++) {
+            players.add(playerRepository.findOrCreate("U" + (100000 + i), "player" + i));
+        }
+    }
+
+    @Test
+    void statsMatchSqliteForEveryWindow() {
+        GameHistory history = new GameHistory(gameRepository);
+        AnalyticsStore store = new AnalyticsStore(history);
+
+        // Two identical draws: players 8 and 10, and 9 and 11, end with the same
+        // record in every section and window, so only the id tiebreak orders them
+        for (int i = 0; i < 2; i++) {
+            playGame(today.atTime(9, i), new int[]{8, 9, 10, 11}, new int[]{0, 1, 0, 1});
+        }
+
+        // The first half is loaded as at startup, the rest appended as it completes
+        Random random = new Random(7);
+        for (int i = 0; i < RANDOM_GAMES; i++) {
+            if (i == RANDOM_GAMES / 2) store.load();
+
+            // Mostly recent games so the week and month windows have plenty of rows
+            int daysAgo = random.nextInt(8) == 0 ? 40 + random.nextInt(400) : random.nextInt(35);
+            int[] lineup = random.ints(0, 8).distinct().limit(4).toArray();
+            // Few goals keep scores close, so draws and equal ratios are common
+            int[] goals = random.ints(4, 0, 4).toArray();
+            long gameId = playGame(today.minusDays(daysAgo).atTime(8 + random.nextInt(10), 0), lineup, goals);
+
+            if (store.isLoaded()) {
+                store.append(gameRepository.findCompletedResults(gameId, gameId + 1).get(0));
+            }
+        }
+
+        for (StatsWindow window : List.of(StatsWindow.weekly(today), StatsWindow.month(today), StatsWindow.allTime())) {
+            Map<String, List<Map<String, Object>>> stats = store.getStats(window);
+            assertRows(statsRepository.getPlayerStats(window), stats.get("Rankings"), "Rankings " + window);
+            assertRows(statsRepository.getForwardStats(window), stats.get("Top Scorers"), "Top Scorers " + window);
+            assertRows(statsRepository.getGoalieStats(window), stats.get("Goalies"), "Goalies " + window);
+        }
+    }
+
+    /**
+     * Plays a completed game with the lineup as blue goalie, blue forward, red
+     * goalie and red forward; each team's score is the sum of its players' goals.
+     */
+    private long playGame(LocalDateTime start, int[] lineup, int[] goals) {
+        List<GamePlayer> gamePlayers = new ArrayList<>();
+        for (int slot = 0; slot < 4; slot++) {
+            GamePlayer gp = new GamePlayer();
+            gp.setPlayerId(players.get(lineup[slot]).getId());
+            gp.setTeam(slot < 2 ? Team.BLUE : Team.RED);
+            gp.setPosition(slot % 2 == 0 ? Position.GOALIE : Position.FORWARD);
+            gamePlayers.add(gp);
+        }
+        long gameId = gameRepository.start("C1", start, gamePlayers).getId();
+
+        Map<Long, Integer> goalsByGamePlayerId = new HashMap<>();
+        for (int slot = 0; slot < 4; slot++) {
+            goalsByGamePlayerId.put(gamePlayers.get(slot).getId(), goals[slot]);
+        }
+        gamePlayerRepository.addGoals(goalsByGamePlayerId);
+        gameRepository.complete(gameId, start.plusMinutes(10), goals[0] + goals[1], goals[2] + goals[3]);
+        return gameId;
+    }
+
+    private static void assertRows(List<Map<String, Object>> expected, List<Map<String, Object>> actual,
+                                   String section) {
+        assertEquals(normalize(expected), normalize(actual), section);
+    }
+
+    /**
+     * SQLite hands back integers, longs or doubles depending on the value, so
+     * numbers are compared as doubles.
+     */
+    private static List<Map<String, Object>> normalize(List<Map<String, Object>> rows) {
+        List<Map<String, Object>> normalized = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            Map<String, Object> copy = new LinkedHashMap<>();
+            row.forEach((key, value) -> copy.put(key, value instanceof Number n ? n.doubleValue() : value));
+            normalized.add(copy);
+        }
+        return normalized;
+    }
+}